@@ -0,0 +1,29 @@
+package SkillMatch.config;
+
+import SkillMatch.repository.ConversationSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds the materialized inbox from the existing messages the first time the application starts
+ * with an empty conversation_summary table. The scripts under db/migration are not run
+ * automatically, so this is what brings conversations from before the table existed into the inbox.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationSummaryBackfill implements CommandLineRunner {
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        if (conversationSummaryRepository.count() > 0) return;
+        int created = conversationSummaryRepository.backfillFromMessages();
+        if (created > 0) log.info("Backfilled {} conversation summaries from existing messages", created);
+    }
+}
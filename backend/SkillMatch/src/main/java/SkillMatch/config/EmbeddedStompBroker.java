@@ -0,0 +1,367 @@
+package SkillMatch.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process STOMP 1.2 broker that the broker relay can connect to when no external
+ * broker is available, e.g. locally or in tests running several backend nodes on one machine.
+ * Supports CONNECT, SUBSCRIBE, UNSUBSCRIBE, SEND (fanned out to every subscription on the exact
+ * destination), DISCONNECT and receipts; heart-beats are declined. Any other frame before a
+ * CONNECT with the relay credentials is answered with ERROR. Nothing is persisted and a
+ * consumer whose outbound queue fills up is disconnected, so this is not a production broker.
+ */
+@Component
+@ConditionalOnProperty(name = "messaging.broker.mode", havingValue = "embedded")
+@Slf4j
+public class EmbeddedStompBroker {
+
+    private final String host;
+    private final int configuredPort;
+    private final String login;
+    private final String passcode;
+    private final int maxPendingFrames;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> backlogByDestination = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routedByDestination = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong messageIds = new AtomicLong();
+    private final ExecutorService threads = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "embedded-stomp");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    public EmbeddedStompBroker(@Value("${messaging.broker.embedded.host:127.0.0.1}") String host,
+                               @Value("${messaging.broker.embedded.port:61613}") int port,
+                               @Value("${messaging.broker.login:guest}") String login,
+                               @Value("${messaging.broker.passcode:guest}") String passcode,
+                               @Value("${messaging.broker.embedded.max-pending-frames:10000}") int maxPendingFrames,
+                               MeterRegistry meterRegistry) {
+        this.host = host;
+        this.configuredPort = port;
+        this.login = login;
+        this.passcode = passcode;
+        this.maxPendingFrames = maxPendingFrames;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        if (running) return;
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(host, configuredPort));
+        running = true;
+        threads.execute(this::acceptLoop);
+        log.info("Embedded STOMP broker listening on {}:{}", host, getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        try {
+            if (serverSocket != null) serverSocket.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+        new ArrayList<>(connections).forEach(Connection::close);
+        threads.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                threads.execute(connection::readLoop);
+                threads.execute(connection::writeLoop);
+            } catch (IOException e) {
+                if (running) log.warn("Embedded STOMP broker accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void route(Frame send) {
+        String destination = send.headers.get("destination");
+        Set<Subscription> targets = destination == null ? null : subscriptions.get(destination);
+        String metricDestination = StompMetricsInterceptor.metricDestination(destination);
+        routedByDestination.computeIfAbsent(metricDestination, d -> Counter.builder("websocket.broker.routed")
+                .tag("destination", d)
+                .register(meterRegistry)).increment();
+        if (targets == null) return;
+
+        for (Subscription subscription : targets) {
+            LinkedHashMap<String, String> headers = new LinkedHashMap<>();
+            headers.put("subscription", subscription.id);
+            headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+            send.headers.forEach((name, value) -> {
+                if (!name.equals("receipt")) headers.putIfAbsent(name, value);
+            });
+            subscription.connection.enqueue(new Frame("MESSAGE", headers, send.body), metricDestination);
+        }
+    }
+
+    private AtomicInteger backlog(String metricDestination) {
+        return backlogByDestination.computeIfAbsent(metricDestination, d ->
+                meterRegistry.gauge("websocket.broker.backlog", Tags.of("destination", d), new AtomicInteger()));
+    }
+
+    private record Subscription(Connection connection, String id, String destination) {
+    }
+
+    private record Outbound(Frame frame, String metricDestination) {
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final BlockingQueue<Outbound> outbound = new LinkedBlockingQueue<>(maxPendingFrames);
+        private final Map<String, Subscription> byId = new ConcurrentHashMap<>();
+        private volatile boolean open = true;
+        private volatile boolean draining = false;
+        /** Set once CONNECT presents valid credentials; only the read loop touches it. */
+        private boolean authenticated = false;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void readLoop() {
+            // Not try-with-resources: closing the input stream would close the socket under the writer.
+            try {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                Frame frame;
+                while (open && (frame = Frame.read(in)) != null) {
+                    if (!handle(frame)) break;
+                }
+            } catch (SocketException e) {
+                // peer went away
+            } catch (IOException e) {
+                log.debug("Embedded STOMP connection failed: {}", e.getMessage());
+            } finally {
+                // The writer flushes pending replies (ERROR, RECEIPT) and then closes the socket.
+                draining = true;
+            }
+        }
+
+        void writeLoop() {
+            try (OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+                while (open) {
+                    Outbound next = outbound.poll(100, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        if (draining) break;
+                        continue;
+                    }
+                    if (next.metricDestination != null) backlog(next.metricDestination).decrementAndGet();
+                    next.frame.write(out);
+                    if (outbound.isEmpty()) out.flush();
+                }
+                out.flush();
+            } catch (IOException | InterruptedException e) {
+                // connection closed
+            } finally {
+                close();
+            }
+        }
+
+        private boolean handle(Frame frame) {
+            boolean connectFrame = "CONNECT".equals(frame.command) || "STOMP".equals(frame.command);
+            if (!authenticated && !connectFrame) {
+                reply(Frame.error("CONNECT required before " + frame.command));
+                return false;
+            }
+            switch (frame.command) {
+                case "CONNECT", "STOMP" -> {
+                    if (!Objects.equals(login, frame.headers.get("login"))
+                            || !Objects.equals(passcode, frame.headers.get("passcode"))) {
+                        reply(Frame.error("Bad credentials"));
+                        return false;
+                    }
+                    LinkedHashMap<String, String> headers = new LinkedHashMap<>();
+                    headers.put("version", "1.2");
+                    headers.put("heart-beat", "0,0");
+                    headers.put("server", "SkillMatch-embedded");
+                    authenticated = true;
+                    reply(new Frame("CONNECTED", headers, new byte[0]));
+                    return true;
+                }
+                case "SUBSCRIBE" -> {
+                    String id = frame.headers.get("id");
+                    String destination = frame.headers.get("destination");
+                    if (id == null || destination == null) {
+                        reply(Frame.error("SUBSCRIBE requires id and destination"));
+                        return false;
+                    }
+                    Subscription subscription = new Subscription(this, id, destination);
+                    byId.put(id, subscription);
+                    subscriptions.computeIfAbsent(destination, d -> ConcurrentHashMap.newKeySet()).add(subscription);
+                }
+                case "UNSUBSCRIBE" -> {
+                    Subscription subscription = byId.remove(String.valueOf(frame.headers.get("id")));
+                    if (subscription != null) unsubscribe(subscription);
+                }
+                case "SEND" -> route(frame);
+                case "DISCONNECT" -> {
+                    receipt(frame);
+                    return false;
+                }
+                default -> {
+                    reply(Frame.error("Unsupported command " + frame.command));
+                    return false;
+                }
+            }
+            receipt(frame);
+            return true;
+        }
+
+        private void receipt(Frame frame) {
+            String receipt = frame.headers.get("receipt");
+            if (receipt == null) return;
+            LinkedHashMap<String, String> headers = new LinkedHashMap<>();
+            headers.put("receipt-id", receipt);
+            reply(new Frame("RECEIPT", headers, new byte[0]));
+        }
+
+        private void reply(Frame frame) {
+            enqueue(frame, null);
+        }
+
+        void enqueue(Frame frame, String metricDestination) {
+            if (!open) return;
+            if (!outbound.offer(new Outbound(frame, metricDestination))) {
+                log.warn("Embedded STOMP consumer {} is too slow, disconnecting", socket.getRemoteSocketAddress());
+                close();
+                return;
+            }
+            if (metricDestination != null) backlog(metricDestination).incrementAndGet();
+        }
+
+        private void unsubscribe(Subscription subscription) {
+            Set<Subscription> set = subscriptions.get(subscription.destination);
+            if (set == null) return;
+            set.remove(subscription);
+            if (set.isEmpty()) subscriptions.remove(subscription.destination, set);
+        }
+
+        synchronized void close() {
+            if (!open) return;
+            open = false;
+            connections.remove(this);
+            byId.values().forEach(this::unsubscribe);
+            byId.clear();
+            for (Outbound pending; (pending = outbound.poll()) != null; ) {
+                if (pending.metricDestination != null) backlog(pending.metricDestination).decrementAndGet();
+            }
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+    }
+
+    /**
+     * A STOMP frame. Header values are kept in their escaped wire form, which is safe because
+     * the broker only copies them from SEND to MESSAGE frames.
+     */
+    static final class Frame {
+        final String command;
+        final LinkedHashMap<String, String> headers;
+        final byte[] body;
+
+        Frame(String command, LinkedHashMap<String, String> headers, byte[] body) {
+            this.command = command;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static Frame error(String message) {
+            LinkedHashMap<String, String> headers = new LinkedHashMap<>();
+            headers.put("message", message);
+            return new Frame("ERROR", headers, new byte[0]);
+        }
+
+        /**
+         * Reads the next frame, skipping heart-beat EOLs. Returns null at end of stream.
+         */
+        static Frame read(InputStream in) throws IOException {
+            int first;
+            do {
+                first = in.read();
+                if (first == -1) return null;
+            } while (first == '\n' || first == '\r');
+
+            String command = readLine(in, first);
+            LinkedHashMap<String, String> headers = new LinkedHashMap<>();
+            for (String line = readLine(in, in.read()); !line.isEmpty(); line = readLine(in, in.read())) {
+                int colon = line.indexOf(':');
+                // STOMP 1.2: when a header repeats, the first occurrence wins.
+                if (colon > 0) headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+            }
+
+            byte[] body;
+            String contentLength = headers.get("content-length");
+            if (contentLength != null) {
+                body = in.readNBytes(Integer.parseInt(contentLength.trim()));
+                if (in.read() != 0) throw new IOException("Frame body not NUL-terminated");
+            } else {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                for (int b = in.read(); b != 0; b = in.read()) {
+                    if (b == -1) throw new EOFException("Unterminated frame");
+                    buffer.write(b);
+                }
+                body = buffer.toByteArray();
+            }
+            return new Frame(command, headers, body);
+        }
+
+        private static String readLine(InputStream in, int first) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            for (int b = first; b != '\n'; b = in.read()) {
+                if (b == -1) throw new EOFException("Unexpected end of frame");
+                line.write(b);
+            }
+            byte[] bytes = line.toByteArray();
+            int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        void write(OutputStream out) throws IOException {
+            StringBuilder head = new StringBuilder(command).append('\n');
+            headers.forEach((name, value) -> head.append(name).append(':').append(value).append('\n'));
+            head.append('\n');
+            out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(body);
+            out.write(0);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package SkillMatch.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Exposes the backlog of the STOMP channel executors as "websocket.channel.backlog" gauges:
+ * messages accepted from clients, from the application/broker and towards clients that are
+ * still waiting for a thread.
+ */
+@Component
+public class StompChannelMetrics {
+
+    public StompChannelMetrics(MeterRegistry meterRegistry,
+                               @Qualifier("clientInboundChannelExecutor") Executor inbound,
+                               @Qualifier("clientOutboundChannelExecutor") Executor outbound,
+                               @Qualifier("brokerChannelExecutor") Executor broker) {
+        register(meterRegistry, "inbound", inbound);
+        register(meterRegistry, "outbound", outbound);
+        register(meterRegistry, "broker", broker);
+    }
+
+    private static void register(MeterRegistry meterRegistry, String channel, Executor executor) {
+        if (!(executor instanceof ThreadPoolTaskExecutor pool)) return;
+        Gauge.builder("websocket.channel.backlog", pool, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("websocket.channel.active", pool, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package SkillMatch.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts STOMP MESSAGE frames per destination as they pass through one of the broker channels
+ * ("websocket.messages", tagged by channel and destination). Per-user and per-session parts
+ * of destinations are stripped so the tag stays low-cardinality.
+ */
+public class StompMetricsInterceptor implements ChannelInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String channel;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public StompMetricsInterceptor(MeterRegistry meterRegistry, String channel) {
+        this.meterRegistry = meterRegistry;
+        this.channel = channel;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel messageChannel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            String destination = metricDestination(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            counters.computeIfAbsent(destination, d -> Counter.builder("websocket.messages")
+                    .tag("channel", channel)
+                    .tag("destination", d)
+                    .register(meterRegistry)).increment();
+        }
+        return message;
+    }
+
+    /**
+     * Maps a concrete destination to its metric tag: "/user/{name}/queue/x" and the resolved
+     * "/queue/x-user{session}" both become "/user/queue/x" and "/queue/x" respectively.
+     */
+    public static String metricDestination(String destination) {
+        if (destination == null || destination.isEmpty()) return "none";
+        String d = destination;
+        if (d.startsWith("/user/")) {
+            int next = d.indexOf('/', "/user/".length());
+            String rest = next > 0 ? d.substring(next) : "";
+            boolean named = !d.startsWith("/user/queue/") && !d.startsWith("/user/topic/");
+            if (named && !rest.isEmpty()) d = "/user" + rest;
+        }
+        // Resolved user destinations end in "-user" + session id; "-user-" is part of a real name.
+        int userSuffix = d.lastIndexOf("-user");
+        int afterSuffix = userSuffix + "-user".length();
+        if (userSuffix > d.lastIndexOf('/') && afterSuffix < d.length() && d.charAt(afterSuffix) != '-') {
+            d = d.substring(0, userSuffix);
+        }
+        return d;
+    }
+}
@@ -1,19 +1,22 @@
 package SkillMatch.config;
 
-import SkillMatch.util.JwtUtil;
-import SkillMatch.service.MyUserDetailsService;
+import SkillMatch.service.AuthPrincipalCache;
+import SkillMatch.util.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -23,16 +26,66 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthPrincipalCache principalCache;
 
     @Autowired
-    private MyUserDetailsService userDetailsService;
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<EmbeddedStompBroker> embeddedBroker;
+
+    /**
+     * simple: in-memory broker, single node only.
+     * relay: relay to an external STOMP broker (RabbitMQ, ActiveMQ...) so user destinations
+     * resolve across every node.
+     * embedded: relay to an in-process broker started on this node, for local multi-node runs.
+     */
+    @Value("${messaging.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${messaging.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${messaging.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${messaging.broker.login:guest}")
+    private String brokerLogin;
+
+    @Value("${messaging.broker.passcode:guest}")
+    private String brokerPasscode;
+
+    @Value("${messaging.broker.virtual-host:}")
+    private String virtualHost;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equals(brokerMode) || "embedded".equals(brokerMode)) {
+            String host = relayHost;
+            int port = relayPort;
+            EmbeddedStompBroker embedded = embeddedBroker.getIfAvailable();
+            if (embedded != null) {
+                host = "127.0.0.1";
+                port = embedded.getPort();
+            }
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(host)
+                    .setRelayPort(port)
+                    .setClientLogin(brokerLogin)
+                    .setClientPasscode(brokerPasscode)
+                    .setSystemLogin(brokerLogin)
+                    .setSystemPasscode(brokerPasscode)
+                    // Share session registries and unresolved user messages between nodes, so
+                    // convertAndSendToUser reaches users connected to any node.
+                    .setUserRegistryBroadcast("/topic/simp-user-registry")
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination");
+            if (!virtualHost.isBlank()) relay.setVirtualHost(virtualHost);
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
+        config.configureBrokerChannel().interceptors(new StompMetricsInterceptor(meterRegistry, "broker"));
     }
 
     @Override
@@ -42,21 +95,24 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompMetricsInterceptor(meterRegistry, "outbound"));
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new ChannelInterceptor() {
+        registration.interceptors(new StompMetricsInterceptor(meterRegistry, "inbound"), new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
                 StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
                 if (StompCommand.CONNECT.equals(accessor.getCommand())) {
                     String authHeader = accessor.getFirstNativeHeader("Authorization");
                     if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                        String jwt = authHeader.substring(7);
-                        if (jwtUtil.isTokenValid(jwt)) {
-                            String username = jwtUtil.extractUsername(jwt);
-                            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                        AuthenticatedUser principal = principalCache.resolve(authHeader.substring(7));
+                        if (principal != null) {
                             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
+                                    principal, null, principal.getAuthorities());
                             accessor.setUser(authentication);
                         }
                     }
@@ -64,7 +64,7 @@ public class JobPostController {
     @GetMapping("/search")
     @Transactional(readOnly = true)
     public ResponseEntity<?> searchPosts(@RequestParam String title){
-        List<JobPost>posts= service.searchPosts(title);
+        List<JobResponseDTO> posts = service.searchPosts(title);
         return ResponseEntity.ok(posts);
     }
 
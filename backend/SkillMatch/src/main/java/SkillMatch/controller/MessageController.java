@@ -1,6 +1,7 @@
 package SkillMatch.controller;
 
 import SkillMatch.dto.ApiResponse;
+import SkillMatch.dto.CursorPageDTO;
 import SkillMatch.model.Message;
 import SkillMatch.model.User;
 import SkillMatch.service.MessageService;
@@ -29,9 +30,26 @@ public class MessageController {
     }
 
     @GetMapping("/conversation/{otherUserId}")
-    public ResponseEntity<ApiResponse<List<Message>>> getConversation(@PathVariable Long otherUserId) {
+    public ResponseEntity<ApiResponse<CursorPageDTO<Message>>> getConversation(
+            @PathVariable Long otherUserId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
         User user = userService.getLogInUser();
-        return ResponseEntity.ok(ApiResponse.success("Conversation retrieved", messageService.getConversation(user, otherUserId)));
+        CursorPageDTO<Message> page = messageService.getConversation(user, otherUserId, before, after, size);
+        return ResponseEntity.ok(ApiResponse.success("Conversation retrieved", page));
+    }
+
+    @PostMapping("/conversation/{otherUserId}/read")
+    public ResponseEntity<ApiResponse<Integer>> markConversationRead(@PathVariable Long otherUserId) {
+        User user = userService.getLogInUser();
+        return ResponseEntity.ok(ApiResponse.success("Conversation marked as read", messageService.markConversationRead(user, otherUserId)));
+    }
+
+    @PutMapping("/read-all")
+    public ResponseEntity<ApiResponse<Integer>> markAllRead() {
+        User user = userService.getLogInUser();
+        return ResponseEntity.ok(ApiResponse.success("All messages marked as read", messageService.markAllRead(user)));
     }
 
     @GetMapping("/inbox")
@@ -1,6 +1,7 @@
 package SkillMatch.controller;
 
 import SkillMatch.dto.ApiResponse;
+import SkillMatch.dto.UnreadCountsDTO;
 import SkillMatch.model.Notification;
 import SkillMatch.service.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,12 @@ public class NotificationController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Notifications fetched successfully", notifications));
     }
 
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<ApiResponse<UnreadCountsDTO>> getUnreadCounts(@PathVariable Long userId) {
+        UnreadCountsDTO counts = notificationService.getUnreadCounts(userId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Unread counts fetched successfully", counts));
+    }
+
     @PutMapping("/{id}/read")
     public ResponseEntity<ApiResponse<Notification>> markAsRead(@PathVariable Long id) {
         Notification notification = notificationService.markAsRead(id);
@@ -2,12 +2,12 @@ package SkillMatch.controller;
 
 import SkillMatch.dto.ApiResponse;
 import SkillMatch.dto.CandidateJobMatchDTO;
+import SkillMatch.dto.CursorPageDTO;
 import SkillMatch.dto.JobResponseDTO;
 import SkillMatch.model.JobPost;
 import SkillMatch.model.User;
 import SkillMatch.repository.JobPostRepo;
 import SkillMatch.service.CandidateJobMatchService;
-import SkillMatch.service.JobPostService;
 import SkillMatch.service.RecommendationService;
 import SkillMatch.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,25 +26,23 @@ public class RecommendationController {
     private final UserService userService;
     private final CandidateJobMatchService candidateJobMatchService;
     private final JobPostRepo jobPostRepo;
-    private final JobPostService jobPostService;
 
     @GetMapping("/jobs")
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<List<JobPost>>> getJobRecommendations() {
+    public ResponseEntity<ApiResponse<List<JobResponseDTO>>> getJobRecommendations() {
         User user = userService.getLogInUser();
-        List<JobPost> recommendations = recommendationService.recommendJobs(user);
+        List<JobResponseDTO> recommendations = recommendationService.recommendJobs(user);
         return ResponseEntity.ok(ApiResponse.success("Job recommendations retrieved", recommendations));
     }
 
     @GetMapping("/jobs/all")
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<List<JobResponseDTO>>> getAllRankedJobs() {
+    public ResponseEntity<ApiResponse<CursorPageDTO<JobResponseDTO>>> getAllRankedJobs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         User user = userService.getLogInUser();
-        List<JobPost> rankedJobs = recommendationService.recommendAllJobs(user);
-        List<JobResponseDTO> dtos = rankedJobs.stream()
-                .map(jobPostService::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("All jobs retrieved and ranked", dtos));
+        CursorPageDTO<JobResponseDTO> page = recommendationService.recommendAllJobs(user, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("All jobs retrieved and ranked", page));
     }
 
     @GetMapping("/candidates/{jobId}")
@@ -0,0 +1,25 @@
+package SkillMatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public <R> CursorPageDTO<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPageDTO<>(mapped, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,15 @@
+package SkillMatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UnreadCountsDTO {
+    private int messages;
+    private int notifications;
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "connections")
+@Table(name = "connections", indexes = {
+        @Index(name = "idx_connections_requester_target_accepted", columnList = "requester_id, target_id, accepted"),
+        @Index(name = "idx_connections_target_requester_accepted", columnList = "target_id, requester_id, accepted")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,57 @@
+package SkillMatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per conversation, keyed by the ordered (low user id, high user id) pair, holding the
+ * latest message and each side's unread count. Maintained alongside every message insert and
+ * read-marking so the inbox never has to aggregate the messages table.
+ */
+@Entity
+@Table(name = "conversation_summary",
+        uniqueConstraints = @UniqueConstraint(name = "uq_conversation_summary_pair", columnNames = {"user_low_id", "user_high_id"}),
+        indexes = {
+                @Index(name = "idx_conversation_summary_low_updated", columnList = "user_low_id, updated_at"),
+                @Index(name = "idx_conversation_summary_high_updated", columnList = "user_high_id, updated_at")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummary {
+    public static final int SNIPPET_LENGTH = 160;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_low_id", nullable = false)
+    private Long userLowId;
+
+    @Column(name = "user_high_id", nullable = false)
+    private Long userHighId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    @Column(length = SNIPPET_LENGTH)
+    private String snippet;
+
+    @Column(name = "unread_low", nullable = false)
+    private int unreadLow;
+
+    @Column(name = "unread_high", nullable = false)
+    private int unreadHigh;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
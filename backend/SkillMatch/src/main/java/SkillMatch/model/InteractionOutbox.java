@@ -0,0 +1,48 @@
+package SkillMatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable queue of user interactions waiting to be delivered to the ML engine.
+ * Rows are deleted once the engine has accepted them.
+ */
+@Entity
+@Table(name = "interaction_outbox", indexes = @Index(name = "idx_interaction_outbox_next_attempt", columnList = "next_attempt_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "interaction_type", nullable = false, length = 20)
+    private String interactionType;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
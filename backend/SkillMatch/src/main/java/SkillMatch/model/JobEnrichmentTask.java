@@ -0,0 +1,42 @@
+package SkillMatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable queue of scraped jobs stored with their raw metadata and waiting to be structured by
+ * the AI. Rows are deleted once the job has been enriched or has run out of attempts.
+ */
+@Entity
+@Table(name = "job_enrichment_queue", indexes = @Index(name = "idx_job_enrichment_queue_next_attempt", columnList = "next_attempt_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobEnrichmentTask {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_post_id", nullable = false, unique = true)
+    private Long jobPostId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
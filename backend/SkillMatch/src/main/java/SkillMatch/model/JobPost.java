@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_job_post_posted_at_id", columnList = "posted_at, id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = @Index(name = "idx_messages_sender_recipient_sent_at", columnList = "sender_id, recipient_id, sent_at, id"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "secureTokens")
+@Table(name = "secureTokens", indexes = @Index(name = "idx_secure_tokens_expired_at", columnList = "expired_at"))
 public class SecureToken {
     @Id
     @GeneratedValue
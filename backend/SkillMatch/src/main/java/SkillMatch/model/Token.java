@@ -3,7 +3,13 @@ package SkillMatch.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_token_token", columnList = "token"),
+        @Index(name = "idx_token_expires_at", columnList = "expires_at")
+})
 @Data
 @RequiredArgsConstructor
 @AllArgsConstructor
@@ -16,6 +22,8 @@ public class Token {
     private String token;
     private boolean revoked;
     private boolean expired;
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
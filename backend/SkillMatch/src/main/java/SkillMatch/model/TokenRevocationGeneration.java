@@ -0,0 +1,23 @@
+package SkillMatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter bumped by every revocation. Incrementing it locks the row until commit, so
+ * generations become visible in order and nodes can poll it to detect new revocations.
+ */
+@Entity
+@Table(name = "token_revocation_generation")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationGeneration {
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long generation;
+}
@@ -0,0 +1,29 @@
+package SkillMatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user unread message and notification counts, adjusted whenever messages or notifications
+ * are created, read or deleted so badges never have to count rows.
+ */
+@Entity
+@Table(name = "user_unread_counters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserUnreadCounter {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_messages", nullable = false)
+    private int unreadMessages;
+
+    @Column(name = "unread_notifications", nullable = false)
+    private int unreadNotifications;
+}
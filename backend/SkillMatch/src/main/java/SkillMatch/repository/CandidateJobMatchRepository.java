@@ -4,6 +4,8 @@ import SkillMatch.model.CandidateJobMatch;
 import SkillMatch.model.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +13,7 @@ import java.util.List;
 @Repository
 public interface CandidateJobMatchRepository extends JpaRepository<CandidateJobMatch, Long> {
     List<CandidateJobMatch> findByCandidateOrderByScoreDesc(User candidate, Pageable pageable);
+
+    @Query("SELECT m.jobPost.id FROM CandidateJobMatch m WHERE m.candidate = :candidate ORDER BY m.score DESC")
+    List<Long> findJobIdsByCandidateOrderByScoreDesc(@Param("candidate") User candidate, Pageable pageable);
 }
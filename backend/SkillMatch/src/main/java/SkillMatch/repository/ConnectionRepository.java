@@ -4,6 +4,7 @@ import SkillMatch.model.Connection;
 import SkillMatch.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,14 +12,27 @@ import java.util.Optional;
 
 @Repository
 public interface ConnectionRepository extends JpaRepository<Connection, Long> {
-    List<Connection> findByRequesterAndAccepted(User requester, boolean accepted);
-
-    List<Connection> findByTargetAndAccepted(User target, boolean accepted);
-
     @Query("SELECT c FROM Connection c WHERE (c.requester = :u1 AND c.target = :u2) OR (c.requester = :u2 AND c.target = :u1)")
     Optional<Connection> findConnectionBetween(User u1, User u2);
 
     List<Connection> findByTargetAndAcceptedFalse(User target);
 
     List<Connection> findByRequesterAndAcceptedFalse(User requester);
+
+    /**
+     * Ids of every user with an accepted connection to the given user, read from the
+     * (requester_id, target_id, accepted) and (target_id, requester_id, accepted) indexes.
+     */
+    @Query(value = "SELECT c.target_id FROM connections c WHERE c.requester_id = :userId AND c.accepted = true " +
+            "UNION " +
+            "SELECT c.requester_id FROM connections c WHERE c.target_id = :userId AND c.accepted = true",
+            nativeQuery = true)
+    List<Long> findAcceptedNeighborIds(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(c) > 0 FROM Connection c WHERE c.accepted = true AND " +
+            "((c.requester.id = :u1 AND c.target.id = :u2) OR (c.requester.id = :u2 AND c.target.id = :u1))")
+    boolean existsAcceptedBetween(@Param("u1") Long u1, @Param("u2") Long u2);
+
+    @Query("SELECT c.requester.id, c.target.id FROM Connection c WHERE c.accepted = true")
+    List<Object[]> findAcceptedEdges();
 }
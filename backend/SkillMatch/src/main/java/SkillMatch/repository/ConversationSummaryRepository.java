@@ -0,0 +1,90 @@
+package SkillMatch.repository;
+
+import SkillMatch.model.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    /**
+     * Records a new message in the pair's summary, creating the row on the first message.
+     * The unread increments are added to the stored counts atomically.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary " +
+            "(user_low_id, user_high_id, last_message_id, last_sender_id, snippet, unread_low, unread_high, updated_at) " +
+            "VALUES (:low, :high, :messageId, :senderId, :snippet, :unreadLow, :unreadHigh, :updatedAt) " +
+            "ON CONFLICT (user_low_id, user_high_id) DO UPDATE SET " +
+            "last_message_id = EXCLUDED.last_message_id, last_sender_id = EXCLUDED.last_sender_id, " +
+            "snippet = EXCLUDED.snippet, updated_at = EXCLUDED.updated_at, " +
+            "unread_low = conversation_summary.unread_low + EXCLUDED.unread_low, " +
+            "unread_high = conversation_summary.unread_high + EXCLUDED.unread_high",
+            nativeQuery = true)
+    int recordMessage(@Param("low") Long low, @Param("high") Long high,
+                      @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                      @Param("snippet") String snippet, @Param("unreadLow") int unreadLow,
+                      @Param("unreadHigh") int unreadHigh, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Creates the summary of every pair that has messages but no row yet: its latest message and
+     * each side's unread count. Existing rows are left alone, so it is safe to run repeatedly.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary " +
+            "(user_low_id, user_high_id, last_message_id, last_sender_id, snippet, unread_low, unread_high, updated_at) " +
+            "SELECT DISTINCT ON (LEAST(m.sender_id, m.recipient_id), GREATEST(m.sender_id, m.recipient_id)) " +
+            "LEAST(m.sender_id, m.recipient_id), GREATEST(m.sender_id, m.recipient_id), m.id, m.sender_id, " +
+            "LEFT(m.content, 160), " +
+            "(SELECT COUNT(*) FROM messages u WHERE u.recipient_id = LEAST(m.sender_id, m.recipient_id) " +
+            "AND u.sender_id = GREATEST(m.sender_id, m.recipient_id) AND u.is_read = false), " +
+            "(SELECT COUNT(*) FROM messages u WHERE u.recipient_id = GREATEST(m.sender_id, m.recipient_id) " +
+            "AND u.sender_id = LEAST(m.sender_id, m.recipient_id) AND u.is_read = false), " +
+            "m.sent_at " +
+            "FROM messages m WHERE m.sender_id IS NOT NULL AND m.recipient_id IS NOT NULL " +
+            "ORDER BY LEAST(m.sender_id, m.recipient_id), GREATEST(m.sender_id, m.recipient_id), " +
+            "m.sent_at DESC, m.id DESC " +
+            "ON CONFLICT (user_low_id, user_high_id) DO NOTHING",
+            nativeQuery = true)
+    int backfillFromMessages();
+
+    /**
+     * Clears the reader's unread count for the pair.
+     */
+    @Modifying
+    @Query(value = "UPDATE conversation_summary SET " +
+            "unread_low = CASE WHEN user_low_id = :reader THEN 0 ELSE unread_low END, " +
+            "unread_high = CASE WHEN user_high_id = :reader THEN 0 ELSE unread_high END " +
+            "WHERE user_low_id = :low AND user_high_id = :high",
+            nativeQuery = true)
+    int clearUnread(@Param("low") Long low, @Param("high") Long high, @Param("reader") Long reader);
+
+    /**
+     * Clears the user's unread count in every conversation they are part of.
+     */
+    @Modifying
+    @Query(value = "UPDATE conversation_summary SET " +
+            "unread_low = CASE WHEN user_low_id = :userId THEN 0 ELSE unread_low END, " +
+            "unread_high = CASE WHEN user_high_id = :userId THEN 0 ELSE unread_high END " +
+            "WHERE (user_low_id = :userId AND unread_low > 0) OR (user_high_id = :userId AND unread_high > 0)",
+            nativeQuery = true)
+    int clearAllUnread(@Param("userId") Long userId);
+
+    /**
+     * Last message id of each of the user's conversations, most recently active first. Each half
+     * is a range scan over one of the (user, updated_at) indexes.
+     */
+    @Query(value = "SELECT s.last_message_id FROM (" +
+            "SELECT last_message_id, updated_at FROM conversation_summary WHERE user_low_id = :userId " +
+            "UNION ALL " +
+            "SELECT last_message_id, updated_at FROM conversation_summary WHERE user_high_id = :userId" +
+            ") s ORDER BY s.updated_at DESC",
+            nativeQuery = true)
+    List<Long> findInboxMessageIds(@Param("userId") Long userId);
+}
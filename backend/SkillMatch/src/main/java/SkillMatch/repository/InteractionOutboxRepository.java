@@ -0,0 +1,36 @@
+package SkillMatch.repository;
+
+import SkillMatch.model.InteractionOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InteractionOutboxRepository extends JpaRepository<InteractionOutbox, Long> {
+
+    @Query("SELECT o FROM InteractionOutbox o WHERE o.nextAttemptAt <= :now ORDER BY o.id ASC")
+    List<InteractionOutbox> findReady(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InteractionOutbox o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE InteractionOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :nextAttemptAt WHERE o.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InteractionOutbox o WHERE o.attempts >= :maxAttempts")
+    int deleteExhausted(@Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,31 @@
+package SkillMatch.repository;
+
+import SkillMatch.model.JobEnrichmentTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JobEnrichmentQueueRepository extends JpaRepository<JobEnrichmentTask, Long> {
+
+    @Query("SELECT t FROM JobEnrichmentTask t WHERE t.nextAttemptAt <= :now ORDER BY t.id ASC")
+    List<JobEnrichmentTask> findReady(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JobEnrichmentTask t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobEnrichmentTask t SET t.attempts = t.attempts + 1, t.nextAttemptAt = :nextAttemptAt WHERE t.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -1,6 +1,7 @@
 package SkillMatch.repository;
 
 import SkillMatch.model.JobPost;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,15 +13,28 @@ import java.util.List;
 public interface JobPostRepo extends JpaRepository<JobPost,Long> {
     List<JobPost> findByTitleContainingIgnoreCase(String title);
 
-    @Query("SELECT DISTINCT j FROM JobPost j " +
+    @Query("SELECT DISTINCT j.id, j.postedAt FROM JobPost j " +
            "LEFT JOIN j.requiredSkills s " +
            "LEFT JOIN j.employer e " +
            "WHERE LOWER(j.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(j.industry) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(j.companyName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(e.companyName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<JobPost> searchJobs(@Param("query") String query);
+           "LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "ORDER BY j.postedAt DESC, j.id DESC")
+    List<Object[]> searchJobKeys(@Param("query") String query);
+
+    /**
+     * Flat scalar row per job for {@link SkillMatch.service.JobMaterializer}; selecting columns rather
+     * than entities keeps the EAGER skill collection and the employer from being loaded per row.
+     */
+    @Query("SELECT j.id, j.title, j.description, j.companyName, j.companyLogo, j.locationType, j.salary, " +
+           "j.jobUrl, j.industry, j.postedAt, j.source, e.companyName, e.pictureUrl " +
+           "FROM JobPost j LEFT JOIN j.employer e WHERE j.id IN :ids")
+    List<Object[]> findFlatRowsByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+    @Query("SELECT j.id, r FROM JobPost j JOIN j.requirements r WHERE j.id IN :ids")
+    List<Object[]> findRequirementsByJobIdIn(@Param("ids") java.util.Collection<Long> ids);
 
     List<JobPost> findByEmployerId(Long employerId);
 
@@ -28,7 +42,25 @@ public interface JobPostRepo extends JpaRepository<JobPost,Long> {
 
     boolean existsByJobUrl(String jobUrl);
 
+    /**
+     * (job url, external id) of every stored job whose url or external id is among the keys;
+     * one round trip for a whole scraped listing.
+     */
+    @Query("SELECT j.jobUrl, j.externalId FROM JobPost j WHERE j.jobUrl IN :keys OR j.externalId IN :keys")
+    List<Object[]> findExistingKeys(@Param("keys") java.util.Collection<String> keys);
+
     long countByPostedAtAfter(java.time.LocalDateTime date);
 
     long deleteByPostedAtBefore(java.time.LocalDateTime dateTime);
+
+    @Query("SELECT j.id, j.postedAt FROM JobPost j ORDER BY j.postedAt DESC, j.id DESC")
+    List<Object[]> findFeedKeysLatestFirst(Pageable pageable);
+
+    @Query("SELECT j.id, j.postedAt FROM JobPost j " +
+           "WHERE j.postedAt < :postedAt OR (j.postedAt = :postedAt AND j.id < :id) " +
+           "ORDER BY j.postedAt DESC, j.id DESC")
+    List<Object[]> findFeedKeysOlderThan(@Param("postedAt") java.time.LocalDateTime postedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT j.id FROM JobPost j WHERE j.postedAt < :dateTime")
+    List<Long> findIdsByPostedAtBefore(@Param("dateTime") java.time.LocalDateTime dateTime);
 }
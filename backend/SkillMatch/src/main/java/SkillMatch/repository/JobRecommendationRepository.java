@@ -2,10 +2,15 @@ package SkillMatch.repository;
 
 import SkillMatch.model.JobRecommendation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface JobRecommendationRepository extends JpaRepository<JobRecommendation, Long> {
     List<JobRecommendation> findByUserIdOrderByRankAsc(Long userId);
+
+    @Query("SELECT r.jobId FROM JobRecommendation r WHERE r.userId = :userId ORDER BY r.rank ASC")
+    List<Long> findJobIdsByUserIdOrderByRankAsc(@Param("userId") Long userId);
 }
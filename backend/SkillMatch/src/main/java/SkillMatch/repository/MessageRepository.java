@@ -1,20 +1,57 @@
 package SkillMatch.repository;
 
 import SkillMatch.model.Message;
-import SkillMatch.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    @Query("SELECT m FROM Message m WHERE (m.sender = :u1 AND m.recipient = :u2) OR (m.sender = :u2 AND m.recipient = :u1) ORDER BY m.sentAt ASC")
-    List<Message> findConversation(User u1, User u2);
+    // Conversation pages: each direction is read in (sent_at, id) order from
+    // idx_messages_sender_recipient_sent_at and cut at :limit before the two halves are merged,
+    // so a page costs the same however long the conversation is. Anchors are message ids.
+    @Query(value = "SELECT * FROM ((SELECT m.* FROM messages m WHERE m.sender_id = :u1 AND m.recipient_id = :u2 " +
+            "ORDER BY m.sent_at DESC, m.id DESC LIMIT :limit) UNION ALL " +
+            "(SELECT m.* FROM messages m WHERE m.sender_id = :u2 AND m.recipient_id = :u1 " +
+            "ORDER BY m.sent_at DESC, m.id DESC LIMIT :limit)) page ORDER BY sent_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Message> findConversationLatest(@Param("u1") Long u1, @Param("u2") Long u2, @Param("limit") int limit);
 
-    @Query("SELECT m FROM Message m WHERE m.id IN (SELECT MAX(m2.id) FROM Message m2 WHERE m2.sender = :user OR m2.recipient = :user GROUP BY (CASE WHEN m2.sender = :user THEN m2.recipient.id ELSE m2.sender.id END)) ORDER BY m.sentAt DESC")
-    List<Message> findRecentConversations(User user);
+    @Query(value = "SELECT * FROM ((SELECT m.* FROM messages m WHERE m.sender_id = :u1 AND m.recipient_id = :u2 " +
+            "AND (m.sent_at, m.id) < ((SELECT a.sent_at FROM messages a WHERE a.id = :anchor), :anchor) " +
+            "ORDER BY m.sent_at DESC, m.id DESC LIMIT :limit) UNION ALL " +
+            "(SELECT m.* FROM messages m WHERE m.sender_id = :u2 AND m.recipient_id = :u1 " +
+            "AND (m.sent_at, m.id) < ((SELECT a.sent_at FROM messages a WHERE a.id = :anchor), :anchor) " +
+            "ORDER BY m.sent_at DESC, m.id DESC LIMIT :limit)) page ORDER BY sent_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Message> findConversationBefore(@Param("u1") Long u1, @Param("u2") Long u2,
+                                         @Param("anchor") Long anchor, @Param("limit") int limit);
 
-    List<Message> findByRecipientAndIsReadFalse(User recipient);
+    @Query(value = "SELECT * FROM ((SELECT m.* FROM messages m WHERE m.sender_id = :u1 AND m.recipient_id = :u2 " +
+            "AND (m.sent_at, m.id) > ((SELECT a.sent_at FROM messages a WHERE a.id = :anchor), :anchor) " +
+            "ORDER BY m.sent_at ASC, m.id ASC LIMIT :limit) UNION ALL " +
+            "(SELECT m.* FROM messages m WHERE m.sender_id = :u2 AND m.recipient_id = :u1 " +
+            "AND (m.sent_at, m.id) > ((SELECT a.sent_at FROM messages a WHERE a.id = :anchor), :anchor) " +
+            "ORDER BY m.sent_at ASC, m.id ASC LIMIT :limit)) page ORDER BY sent_at ASC, id ASC LIMIT :limit",
+            nativeQuery = true)
+    List<Message> findConversationAfter(@Param("u1") Long u1, @Param("u2") Long u2,
+                                        @Param("anchor") Long anchor, @Param("limit") int limit);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM messages m WHERE (m.sender_id = :u1 AND m.recipient_id = :u2) " +
+            "OR (m.sender_id = :u2 AND m.recipient_id = :u1))", nativeQuery = true)
+    boolean existsConversation(@Param("u1") Long u1, @Param("u2") Long u2);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.sender.id = :senderId AND m.recipient.id = :recipientId AND m.isRead = false")
+    int markReadFromSender(@Param("senderId") Long senderId, @Param("recipientId") Long recipientId);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.recipient.id = :recipientId AND m.isRead = false")
+    int markAllReadForRecipient(@Param("recipientId") Long recipientId);
+
+    long countByRecipientIdAndIsReadFalse(Long recipientId);
 }
@@ -0,0 +1,71 @@
+package SkillMatch.repository;
+
+import SkillMatch.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    boolean existsByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query(value = "INSERT INTO token_revocation_generation (id, generation) VALUES (1, 0) " +
+            "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    void initializeGeneration();
+
+    @Query(value = "SELECT generation FROM token_revocation_generation WHERE id = 1", nativeQuery = true)
+    Long currentGeneration();
+
+    /**
+     * Bumps the generation; the row stays locked until the caller's transaction commits.
+     */
+    @Modifying
+    @Query(value = "UPDATE token_revocation_generation SET generation = generation + 1 WHERE id = 1",
+            nativeQuery = true)
+    int incrementGeneration();
+
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (token_hash, generation, expires_at) " +
+            "VALUES (:tokenHash, :generation, :expiresAt) ON CONFLICT (token_hash) DO NOTHING",
+            nativeQuery = true)
+    int record(@Param("tokenHash") String tokenHash,
+               @Param("generation") long generation,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Copies tokens revoked at logout into the log when they have no entry yet, e.g. from before
+     * the log existed or from a node that only flags the token row. Tokens issued before their
+     * expiry was stored get the full default validity (token.validity.minutes = 7 days).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (token_hash, generation, expires_at) " +
+            "SELECT encode(sha256(convert_to(t.token, 'UTF8')), 'hex'), :generation, " +
+            "COALESCE(t.expires_at, now() + interval '7 days') " +
+            "FROM token t WHERE t.revoked = true AND (t.expires_at IS NULL OR t.expires_at > :now) " +
+            "ON CONFLICT (token_hash) DO NOTHING", nativeQuery = true)
+    int backfillFromTokenTable(@Param("generation") long generation, @Param("now") LocalDateTime now);
+
+    /**
+     * Hashes of still-unexpired tokens revoked after the given generation.
+     */
+    @Query("SELECT r.tokenHash FROM RevokedToken r WHERE r.generation > :generation AND r.expiresAt > :now")
+    List<String> findHashesSince(@Param("generation") long generation, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes up to {@code batchSize} entries whose token has expired; the signature check
+     * rejects those tokens on its own.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM revoked_tokens WHERE id IN " +
+            "(SELECT id FROM revoked_tokens WHERE expires_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int purgeExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
@@ -5,7 +5,11 @@ import SkillMatch.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface SecureTokenRepository extends JpaRepository<SecureToken,Long> {
@@ -16,4 +20,10 @@ public interface SecureTokenRepository extends JpaRepository<SecureToken,Long> {
     @Modifying
     @Query("DELETE FROM SecureToken s WHERE s.user = :user")
     void deleteByUser(User user);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM secure_tokens WHERE id IN " +
+            "(SELECT id FROM secure_tokens WHERE expired_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int purgeExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
@@ -2,13 +2,29 @@ package SkillMatch.repository;
 
 import SkillMatch.model.Skill;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import SkillMatch.model.User;
+import SkillMatch.util.Role;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SkillRepo extends JpaRepository<Skill,Long> {
     List<Skill> findByUser(User user);
+
+    @Query("SELECT s.jobPost.id, s.title FROM Skill s WHERE s.jobPost IS NOT NULL")
+    List<Object[]> findJobSkillTitles();
+
+    @Query("SELECT s.jobPost.id, s.title FROM Skill s WHERE s.jobPost.id IN :jobIds ORDER BY s.id")
+    List<Object[]> findJobSkillTitlesByJobIdIn(@Param("jobIds") Collection<Long> jobIds);
+
+    @Query("SELECT s.user.id, s.title FROM Skill s WHERE s.user.role = :role")
+    List<Object[]> findUserSkillTitlesByRole(@Param("role") Role role);
+
+    @Query("SELECT s.title FROM Skill s WHERE s.user.id = :userId")
+    List<String> findTitlesByUserId(@Param("userId") Long userId);
 }
@@ -3,10 +3,35 @@ package SkillMatch.repository;
 
 import SkillMatch.model.Token;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 
 @Repository
 public interface TokenRepo extends JpaRepository<Token,Long> {
     Token findByToken(String jwt);
+
+    /**
+     * Deletes up to {@code batchSize} tokens that expired before {@code now}; returns the count.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM token WHERE id IN " +
+            "(SELECT id FROM token WHERE expires_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int purgeExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    /**
+     * Gives up to {@code batchSize} tokens issued before expires_at was stored the given expiry,
+     * so the purge can reach them; returns the count.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE token SET expires_at = :expiresAt WHERE id IN " +
+            "(SELECT id FROM token WHERE expires_at IS NULL LIMIT :batchSize)", nativeQuery = true)
+    int assignLegacyExpiry(@Param("expiresAt") LocalDateTime expiresAt, @Param("batchSize") int batchSize);
 }
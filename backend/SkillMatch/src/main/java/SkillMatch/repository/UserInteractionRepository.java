@@ -6,6 +6,7 @@ import SkillMatch.model.UserInteraction;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -24,4 +25,11 @@ public interface UserInteractionRepository extends JpaRepository<UserInteraction
             "GROUP BY ui.jobPost.id " +
             "ORDER BY COUNT(ui) DESC")
     List<Object[]> findTopClickedJobIds(Pageable pageable);
+
+    @Query("SELECT ui.jobPost.id, COUNT(ui) " +
+            "FROM UserInteraction ui " +
+            "WHERE ui.user.id = :userId AND ui.interactionType = 'CLICK' AND ui.jobPost IS NOT NULL " +
+            "GROUP BY ui.jobPost.id " +
+            "ORDER BY ui.jobPost.id")
+    List<Object[]> countClicksByJobForUser(@Param("userId") Long userId);
 }
@@ -27,4 +27,16 @@ public interface UserRepo extends JpaRepository<User,Long> {
     List<User> findNotifiableUsersByRoleAndIndustry(@Param("role") Role role, @Param("industry") String industry);
 
     long countByCreatedAtAfter(LocalDateTime date);
+
+    @Query("SELECT u.id, u.experienceLevel, u.location FROM User u WHERE u.role = :role")
+    List<Object[]> findFeatureRowsByRole(@Param("role") Role role);
+
+    @Query("SELECT u.id, u.experienceLevel, u.location FROM User u WHERE u.id = :id AND u.role = :role")
+    List<Object[]> findFeatureRowByIdAndRole(@Param("id") Long id, @Param("role") Role role);
+
+    /**
+     * (id, email, role) for building the slim authenticated principal.
+     */
+    @Query("SELECT u.id, u.email, u.role FROM User u WHERE u.email = :email")
+    List<Object[]> findPrincipalRowByEmail(@Param("email") String email);
 }
@@ -0,0 +1,49 @@
+package SkillMatch.repository;
+
+import SkillMatch.model.UserUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserUnreadCounterRepository extends JpaRepository<UserUnreadCounter, Long> {
+
+    String UNREAD_MESSAGES = "(SELECT COUNT(*) FROM messages m WHERE m.recipient_id = :userId AND m.is_read = false)";
+    String UNREAD_NOTIFICATIONS = "(SELECT COUNT(*) FROM notification n WHERE n.user_id = :userId AND n.is_read = false)";
+
+    // Counters are adjusted with single-statement upserts so concurrent updates never lose
+    // increments; counts are clamped at zero. A user without a row yet is seeded from the unread
+    // rows, which already include the caller's change, so existing users start from their real count.
+    @Modifying
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_notifications) " +
+            "VALUES (:userId, " + UNREAD_MESSAGES + ", " + UNREAD_NOTIFICATIONS + ") " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_messages = GREATEST(user_unread_counters.unread_messages + :delta, 0)",
+            nativeQuery = true)
+    int addUnreadMessages(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_notifications) " +
+            "VALUES (:userId, " + UNREAD_MESSAGES + ", " + UNREAD_NOTIFICATIONS + ") " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_notifications = GREATEST(user_unread_counters.unread_notifications + :delta, 0)",
+            nativeQuery = true)
+    int addUnreadNotifications(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_notifications) " +
+            "VALUES (:userId, :messages, :notifications) ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    int initialize(@Param("userId") Long userId, @Param("messages") int messages,
+                   @Param("notifications") int notifications);
+
+    @Modifying
+    @Query("UPDATE UserUnreadCounter c SET c.unreadMessages = 0 WHERE c.userId = :userId")
+    int clearUnreadMessages(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE UserUnreadCounter c SET c.unreadNotifications = 0 WHERE c.userId = :userId")
+    int clearUnreadNotifications(@Param("userId") Long userId);
+}
@@ -0,0 +1,80 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.UserRepo;
+import SkillMatch.util.AuthenticatedUser;
+import SkillMatch.util.BoundedTtlCache;
+import SkillMatch.util.JwtUtil;
+import SkillMatch.util.Role;
+import SkillMatch.util.TokenHash;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Principals of recently seen JWTs, keyed by the SHA-256 of the token and kept in a bounded LRU
+ * cache with a short TTL (never past the token's own expiry). A miss parses the token once and
+ * loads its user with a single scalar query; a hit needs neither. Every lookup is checked against
+ * the {@link TokenRevocationRegistry}, so tokens revoked on another node stop working as soon as
+ * the registry has pulled the revocation.
+ */
+@Service
+public class AuthPrincipalCache {
+
+    private final JwtUtil jwtUtil;
+    private final UserRepo userRepo;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final BoundedTtlCache<String, AuthenticatedUser> principals;
+
+    public AuthPrincipalCache(JwtUtil jwtUtil,
+                              UserRepo userRepo,
+                              TokenRevocationRegistry revocationRegistry,
+                              @Value("${auth.principal-cache.ttl-ms:60000}") long ttlMs,
+                              @Value("${auth.principal-cache.max-tokens:20000}") int maxTokens) {
+        this.jwtUtil = jwtUtil;
+        this.userRepo = userRepo;
+        this.revocationRegistry = revocationRegistry;
+        this.principals = new BoundedTtlCache<>(ttlMs, maxTokens);
+    }
+
+    /**
+     * Returns the principal of a valid, unrevoked token, or null if the token is not usable.
+     */
+    public AuthenticatedUser resolve(String jwt) {
+        if (jwt == null || jwt.isBlank()) return null;
+        byte[] digest = TokenHash.sha256(jwt);
+        if (revocationRegistry.isRevoked(digest)) {
+            evict(jwt);
+            return null;
+        }
+
+        String key = TokenHash.hex(digest);
+        AuthenticatedUser cached = principals.getIfPresent(key);
+        if (cached != null) return cached;
+        long stamp = principals.stamp();
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(jwt);
+        } catch (Exception e) {
+            return null;
+        }
+        List<Object[]> rows = userRepo.findPrincipalRowByEmail(claims.getSubject());
+        if (rows.isEmpty()) return null;
+        Object[] row = rows.get(0);
+        AuthenticatedUser principal = new AuthenticatedUser((Long) row[0], (String) row[1], (Role) row[2]);
+
+        // Never cache a principal past its token's own expiry
+        Date expiration = claims.getExpiration();
+        long tokenTtlMs = expiration != null ? expiration.getTime() - System.currentTimeMillis() : Long.MAX_VALUE;
+        principals.putIfUnchanged(key, principal, stamp, tokenTtlMs);
+        return principal;
+    }
+
+    public void evict(String jwt) {
+        if (jwt == null) return;
+        principals.invalidate(TokenHash.hex(TokenHash.sha256(jwt)));
+    }
+}
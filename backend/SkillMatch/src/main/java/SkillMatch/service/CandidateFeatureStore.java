@@ -0,0 +1,259 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.SkillRepo;
+import SkillMatch.repository.UserRepo;
+import SkillMatch.util.ProfileNarratives;
+import SkillMatch.util.Role;
+import SkillMatch.util.SkillIds;
+import SkillMatch.util.SkillDictionary;
+import SkillMatch.util.TopKSelector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident feature vectors for every CANDIDATE, used to rank the whole candidate pool for a job
+ * without loading User entities. Features are kept column-wise in primitive arrays: skill sets
+ * as sorted {@link SkillDictionary} ids, so a row costs only the skills the candidate has,
+ * experience years, and an interned location code. Rows are refreshed when profiles or skills change and the whole store
+ * is rebuilt periodically to heal any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CandidateFeatureStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final UserRepo userRepo;
+    private final SkillRepo skillRepo;
+    private final SkillDictionary skillDictionary;
+    private final ParallelScoringEngine scoringEngine;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowByUser = new HashMap<>();
+    private final Map<String, Integer> locationCodes = new HashMap<>();
+    private long[] userIds = new long[INITIAL_CAPACITY];
+    private float[] experienceYears = new float[INITIAL_CAPACITY];
+    private int[] locations = new int[INITIAL_CAPACITY];
+    private int[][] skills = new int[INITIAL_CAPACITY][];
+    private int size = 0;
+    private volatile boolean ready = false;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${recommendation.candidate-features.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        List<Object[]> profiles = userRepo.findFeatureRowsByRole(Role.CANDIDATE);
+        Map<Long, List<String>> skillsByUser = new HashMap<>();
+        for (Object[] row : skillRepo.findUserSkillTitlesByRole(Role.CANDIDATE)) {
+            skillsByUser.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            rowByUser.clear();
+            size = 0;
+            for (Object[] row : profiles) {
+                Long userId = (Long) row[0];
+                upsertUnlocked(userId, (String) row[1], (String) row[2],
+                        skillsByUser.getOrDefault(userId, Collections.emptyList()));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Candidate feature store rebuilt: {} candidates", profiles.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads one user's features; drops the row if the user is no longer a candidate.
+     */
+    public void refresh(Long userId) {
+        if (userId == null) return;
+        List<Object[]> rows = userRepo.findFeatureRowByIdAndRole(userId, Role.CANDIDATE);
+        if (rows.isEmpty()) {
+            remove(userId);
+            return;
+        }
+        Object[] row = rows.get(0);
+        List<String> skills = skillRepo.findTitlesByUserId(userId);
+
+        lock.writeLock().lock();
+        try {
+            upsertUnlocked(userId, (String) row[1], (String) row[2], skills);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        if (userId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer row = rowByUser.remove(userId);
+            if (row == null) return;
+            int last = --size;
+            if (row != last) {
+                // Move the last row into the hole so rows stay dense.
+                userIds[row] = userIds[last];
+                experienceYears[row] = experienceYears[last];
+                locations[row] = locations[last];
+                skills[row] = skills[last];
+                rowByUser.put(userIds[row], row);
+            }
+            skills[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every candidate with the feature-based job match score and returns the best k
+     * (user id, score) pairs scoring above minScore. Large pools are scored in parallel chunks;
+     * the read lock is held by the caller for the whole pass so rows cannot move underneath.
+     */
+    public TopKSelector rankForJob(JobProfile job, int k, double minScore) {
+        lock.readLock().lock();
+        try {
+            return scoringEngine.topK(size, k, (from, to, top) -> {
+                for (int row = from; row < to; row++) {
+                    double score = scoreRow(row, job);
+                    if (score > minScore) top.offer(userIds[row], score);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of one candidate's features, or null if the user is not in the store.
+     */
+    public Features featuresOf(long userId, JobProfile job) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowByUser.get(userId);
+            if (row == null) return null;
+            return new Features(experienceYears[row], locations[row],
+                    SkillIds.intersectionSize(skills[row], job.requiredIds));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Precomputes the per-job inputs of the scoring kernel. Titles no candidate holds are not
+     * interned; they still count towards the required skills.
+     */
+    public JobProfile profileFor(Collection<String> requiredSkillTitles, String jobTitle) {
+        return new JobProfile(skillDictionary.knownIdsOf(requiredSkillTitles),
+                SkillDictionary.distinctCount(requiredSkillTitles), jobTitle);
+    }
+
+    private double scoreRow(int row, JobProfile job) {
+        double score = 0;
+        if (job.requiredCount > 0) {
+            int matches = SkillIds.intersectionSize(skills[row], job.requiredIds);
+            score += ((double) matches / job.requiredCount) * 60;
+        }
+        float years = experienceYears[row];
+        if (job.senior && years >= 5) score += 40;
+        else if (job.junior && years < 3) score += 40;
+        else if (years >= 1) score += 20;
+        return score;
+    }
+
+    private void upsertUnlocked(Long userId, String experienceLevel, String location, List<String> skillTitles) {
+        int[] ids = skillDictionary.idsOf(skillTitles);
+
+        Integer row = rowByUser.get(userId);
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowByUser.put(userId, row);
+        }
+        userIds[row] = userId;
+        experienceYears[row] = (float) ProfileNarratives.experienceYears(experienceLevel);
+        locations[row] = locationCodeUnlocked(location);
+        skills[row] = ids;
+    }
+
+    private int locationCodeUnlocked(String location) {
+        if (location == null || location.isBlank()) return -1;
+        return locationCodes.computeIfAbsent(SkillDictionary.normalize(location), l -> locationCodes.size());
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= userIds.length) return;
+        int capacity = Math.max(rows, userIds.length * 2);
+        userIds = Arrays.copyOf(userIds, capacity);
+        experienceYears = Arrays.copyOf(experienceYears, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        skills = Arrays.copyOf(skills, capacity);
+    }
+
+    /**
+     * Job-side inputs to the scoring kernel: required skill ids and count, and seniority flags from the title.
+     */
+    public static final class JobProfile {
+        private final int[] requiredIds;
+        private final int requiredCount;
+        private final boolean senior;
+        private final boolean junior;
+
+        JobProfile(int[] requiredIds, int requiredCount, String jobTitle) {
+            String title = jobTitle == null ? "" : jobTitle.toLowerCase();
+            this.requiredIds = requiredIds;
+            this.requiredCount = requiredCount;
+            this.senior = title.contains("senior");
+            this.junior = title.contains("junior");
+        }
+
+        public int getRequiredCount() {
+            return requiredCount;
+        }
+    }
+
+    /**
+     * One candidate's features relative to a job.
+     */
+    public static final class Features {
+        private final double experienceYears;
+        private final int locationCode;
+        private final int sharedSkills;
+
+        Features(double experienceYears, int locationCode, int sharedSkills) {
+            this.experienceYears = experienceYears;
+            this.locationCode = locationCode;
+            this.sharedSkills = sharedSkills;
+        }
+
+        public double getExperienceYears() {
+            return experienceYears;
+        }
+
+        public int getLocationCode() {
+            return locationCode;
+        }
+
+        public int getSharedSkills() {
+            return sharedSkills;
+        }
+    }
+}
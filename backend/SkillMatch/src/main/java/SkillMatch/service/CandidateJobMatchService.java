@@ -26,10 +26,9 @@ public class CandidateJobMatchService {
                 .collect(Collectors.toList());
     }
 
-    public List<JobPost> getTopJobPosts(User candidate, int limit) {
-        return loadMatches(candidate, limit).stream()
-                .map(CandidateJobMatch::getJobPost)
-                .collect(Collectors.toList());
+    public List<Long> getTopJobIds(User candidate, int limit) {
+        if (candidate == null) return Collections.emptyList();
+        return repository.findJobIdsByCandidateOrderByScoreDesc(candidate, PageRequest.of(0, Math.max(1, limit)));
     }
 
     private List<CandidateJobMatch> loadMatches(User candidate, int limit) {
@@ -0,0 +1,290 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.ConnectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident undirected graph of accepted connections. User ids are mapped to dense int vertices
+ * and adjacency is kept in compressed sparse row form (offsets + sorted neighbor array), so
+ * mutual-connection counts and friend-of-friend candidates are answered from primitive arrays
+ * without touching the database. Edges accepted since the last compaction live in a small
+ * sorted per-vertex overlay that is folded into the CSR arrays once it grows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConnectionGraph {
+
+    private static final int[] NO_NEIGHBORS = new int[0];
+    private static final int MIN_COMPACT_EDGES = 1024;
+
+    private final ConnectionRepository connectionRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> vertexByUser = new HashMap<>();
+    private final Map<Integer, int[]> overlay = new HashMap<>();
+    private long[] userByVertex = new long[64];
+    private int vertexCount = 0;
+    private int[] offsets = {0};
+    private int[] neighbors = NO_NEIGHBORS;
+    private int overlayEdges = 0;
+    private volatile boolean ready = false;
+
+    /**
+     * Rebuilds the graph from the accepted connection rows. Runs on startup and periodically
+     * to heal any drift left by rolled back transactions or writes made by other nodes.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${recommendation.connection-graph.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        List<Object[]> edges = connectionRepository.findAcceptedEdges();
+
+        lock.writeLock().lock();
+        try {
+            vertexByUser.clear();
+            overlay.clear();
+            overlayEdges = 0;
+            vertexCount = 0;
+            int[] from = new int[edges.size()];
+            int[] to = new int[edges.size()];
+            int n = 0;
+            for (Object[] row : edges) {
+                if (row[0] == null || row[1] == null || row[0].equals(row[1])) continue;
+                from[n] = vertexUnlocked((Long) row[0]);
+                to[n] = vertexUnlocked((Long) row[1]);
+                n++;
+            }
+            buildCsrUnlocked(from, to, n);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Connection graph rebuilt: {} users, {} edges", vertexCount, neighbors.length / 2);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records an accepted connection. Adding an edge that already exists is a no-op.
+     */
+    public void addEdge(Long userA, Long userB) {
+        if (userA == null || userB == null || userA.equals(userB)) return;
+        lock.writeLock().lock();
+        try {
+            int a = vertexUnlocked(userA);
+            int b = vertexUnlocked(userB);
+            if (containsSorted(neighborsUnlocked(a), b)) return;
+            insertOverlayUnlocked(a, b);
+            insertOverlayUnlocked(b, a);
+            overlayEdges++;
+            if (overlayEdges >= Math.max(MIN_COMPACT_EDGES, neighbors.length / 8)) {
+                compactUnlocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the user ids directly connected to the user.
+     */
+    public long[] connectionsOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            Integer v = userId == null ? null : vertexByUser.get(userId);
+            if (v == null) return new long[0];
+            int[] adjacent = neighborsUnlocked(v);
+            long[] ids = new long[adjacent.length];
+            for (int i = 0; i < adjacent.length; i++) ids[i] = userByVertex[adjacent[i]];
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean areConnected(Long userA, Long userB) {
+        lock.readLock().lock();
+        try {
+            Integer a = userA == null ? null : vertexByUser.get(userA);
+            Integer b = userB == null ? null : vertexByUser.get(userB);
+            return a != null && b != null && containsSorted(neighborsUnlocked(a), b);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int mutualCount(Long userA, Long userB) {
+        lock.readLock().lock();
+        try {
+            Integer a = userA == null ? null : vertexByUser.get(userA);
+            Integer b = userB == null ? null : vertexByUser.get(userB);
+            if (a == null || b == null) return 0;
+            return intersectionSize(neighborsUnlocked(a), neighborsUnlocked(b));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every user two hops away (not the user and not already connected) mapped to the
+     * number of mutual connections, in one pass over the friends' adjacency rows.
+     */
+    public Map<Long, Integer> mutualCounts(Long userId) {
+        lock.readLock().lock();
+        try {
+            Integer v = userId == null ? null : vertexByUser.get(userId);
+            if (v == null) return new HashMap<>();
+            int[] direct = neighborsUnlocked(v);
+
+            int total = 0;
+            int[][] rows = new int[direct.length][];
+            for (int i = 0; i < direct.length; i++) {
+                rows[i] = neighborsUnlocked(direct[i]);
+                total += rows[i].length;
+            }
+            int[] hops = new int[total];
+            int n = 0;
+            for (int[] row : rows) {
+                System.arraycopy(row, 0, hops, n, row.length);
+                n += row.length;
+            }
+            // Sorting turns the multiset of second hops into runs whose length is the mutual count.
+            Arrays.sort(hops);
+
+            Map<Long, Integer> counts = new HashMap<>();
+            for (int i = 0; i < n; ) {
+                int candidate = hops[i];
+                int run = i;
+                while (i < n && hops[i] == candidate) i++;
+                if (candidate != v && !containsSorted(direct, candidate)) {
+                    counts.put(userByVertex[candidate], i - run);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int vertexUnlocked(Long userId) {
+        Integer v = vertexByUser.get(userId);
+        if (v != null) return v;
+        if (vertexCount == userByVertex.length) {
+            userByVertex = Arrays.copyOf(userByVertex, vertexCount * 2);
+        }
+        userByVertex[vertexCount] = userId;
+        vertexByUser.put(userId, vertexCount);
+        return vertexCount++;
+    }
+
+    /**
+     * Sorted neighbors of a vertex: its CSR row merged with any overlay edges.
+     */
+    private int[] neighborsUnlocked(int v) {
+        int[] csr = v + 1 < offsets.length
+                ? Arrays.copyOfRange(neighbors, offsets[v], offsets[v + 1])
+                : NO_NEIGHBORS;
+        int[] extra = overlay.get(v);
+        if (extra == null) return csr;
+        int[] merged = new int[csr.length + extra.length];
+        int i = 0, j = 0, k = 0;
+        while (i < csr.length && j < extra.length) {
+            merged[k++] = csr[i] < extra[j] ? csr[i++] : extra[j++];
+        }
+        while (i < csr.length) merged[k++] = csr[i++];
+        while (j < extra.length) merged[k++] = extra[j++];
+        return merged;
+    }
+
+    private void insertOverlayUnlocked(int v, int neighbor) {
+        int[] row = overlay.getOrDefault(v, NO_NEIGHBORS);
+        int pos = -Arrays.binarySearch(row, neighbor) - 1;
+        int[] grown = new int[row.length + 1];
+        System.arraycopy(row, 0, grown, 0, pos);
+        grown[pos] = neighbor;
+        System.arraycopy(row, pos, grown, pos + 1, row.length - pos);
+        overlay.put(v, grown);
+    }
+
+    /**
+     * Folds the overlay into fresh CSR arrays.
+     */
+    private void compactUnlocked() {
+        int edges = neighbors.length / 2 + overlayEdges;
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        int n = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            for (int u : neighborsUnlocked(v)) {
+                if (v < u) {
+                    from[n] = v;
+                    to[n] = u;
+                    n++;
+                }
+            }
+        }
+        overlay.clear();
+        overlayEdges = 0;
+        buildCsrUnlocked(from, to, n);
+    }
+
+    /**
+     * Builds sorted, de-duplicated CSR arrays for the first n undirected edges.
+     */
+    private void buildCsrUnlocked(int[] from, int[] to, int n) {
+        int[] degree = new int[vertexCount + 1];
+        for (int i = 0; i < n; i++) {
+            degree[from[i] + 1]++;
+            degree[to[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) degree[v + 1] += degree[v];
+
+        int[] adjacency = new int[2 * n];
+        int[] cursor = Arrays.copyOf(degree, vertexCount);
+        for (int i = 0; i < n; i++) {
+            adjacency[cursor[from[i]]++] = to[i];
+            adjacency[cursor[to[i]]++] = from[i];
+        }
+
+        // Sort every row and squeeze out duplicates (a pair can be stored in both directions).
+        int[] packedOffsets = new int[vertexCount + 1];
+        int write = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int start = degree[v];
+            int end = degree[v + 1];
+            Arrays.sort(adjacency, start, end);
+            packedOffsets[v] = write;
+            for (int i = start; i < end; i++) {
+                if (i == start || adjacency[i] != adjacency[i - 1]) adjacency[write++] = adjacency[i];
+            }
+        }
+        packedOffsets[vertexCount] = write;
+        offsets = packedOffsets;
+        neighbors = Arrays.copyOf(adjacency, write);
+    }
+
+    private static boolean containsSorted(int[] sorted, int value) {
+        return Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    private static int intersectionSize(int[] a, int[] b) {
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
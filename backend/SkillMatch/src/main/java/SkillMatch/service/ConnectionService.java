@@ -8,16 +8,17 @@ import SkillMatch.repository.UserRepo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ConnectionService {
     private final ConnectionRepository connectionRepository;
     private final UserRepo userRepository;
+    private final ConnectionGraph connectionGraph;
+    private final MessageAuthorizationCache messageAuthorizationCache;
 
     public void sendConnectionRequest(User requester, Long targetId) {
         User target = userRepository.findById(targetId)
@@ -25,6 +26,10 @@ public class ConnectionService {
 
         Optional<Connection> existing = connectionRepository.findConnectionBetween(requester, target);
         if (existing.isPresent()) {
+            // Heal the graph if an accepted pair is missing from it (e.g. written by another node).
+            if (existing.get().isAccepted()) {
+                connectionGraph.addEdge(requester.getId(), target.getId());
+            }
             return;
         }
 
@@ -46,16 +51,22 @@ public class ConnectionService {
 
         connection.setAccepted(true);
         connectionRepository.save(connection);
+        connectionGraph.addEdge(connection.getRequester().getId(), target.getId());
+        messageAuthorizationCache.evict(connection.getRequester().getId(), target.getId());
     }
 
+    /**
+     * Loads the connected users. Only call when the full profiles are needed; otherwise use
+     * {@link #getConnectionIds}.
+     */
     public List<User> getConnections(User user) {
-        List<Connection> asRequester = connectionRepository.findByRequesterAndAccepted(user, true);
-        List<Connection> asTarget = connectionRepository.findByTargetAndAccepted(user, true);
+        List<Long> ids = getConnectionIds(user.getId());
+        if (ids.isEmpty()) return new ArrayList<>();
+        return userRepository.findAllById(ids);
+    }
 
-        return Stream.concat(
-                asRequester.stream().map(Connection::getTarget),
-                asTarget.stream().map(Connection::getRequester)
-        ).collect(Collectors.toList());
+    public List<Long> getConnectionIds(Long userId) {
+        return connectionRepository.findAcceptedNeighborIds(userId);
     }
 
     public List<Connection> getPendingRequests(User user) {
@@ -67,8 +78,10 @@ public class ConnectionService {
     }
 
     public boolean areConnected(User u1, User u2) {
-        return connectionRepository.findConnectionBetween(u1, u2)
-                .map(Connection::isAccepted)
-                .orElse(false);
+        return areConnected(u1.getId(), u2.getId());
+    }
+
+    public boolean areConnected(Long u1, Long u2) {
+        return connectionRepository.existsAcceptedBetween(u1, u2);
     }
 }
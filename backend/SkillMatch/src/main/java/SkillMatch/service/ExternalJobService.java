@@ -1,28 +1,18 @@
 package SkillMatch.service;
 
 import SkillMatch.dto.JobResponseDTO;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import SkillMatch.util.ExternalJobSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
-import org.jsoup.HttpStatusException;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,24 +20,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ExternalJobService {
 
-    private final GeminiService geminiService;
-    private final ObjectMapper objectMapper;
-
-        private static final List<String> USER_AGENTS = List.of(
-            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/125.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4.1 Mobile/15E148 Safari/604.1"
-        );
-    private static final int CONNECT_TIMEOUT_MS = 120000;
+    private final ExternalPageFetcher pageFetcher;
+    private final PageCache pageCache;
 
     private static final String GAMJOBS_URL = "https://gamjobs.com/jobs/";
     private static final String WAVE_URL = "https://www.wave.com/en/careers/";
     private static final String IOM_GAMBIA_URL = "https://gambia.iom.int/careers";
     private static final String MOJ_GAMBIA_URL = "https://moj.gov.gm/vcancies/";
     private static final String UNJOBS_GAMBIA_URL = "https://unjobs.org/duty_stations/gambia";
-
-    private static final List<String> TEXT_PROXY_TARGETS = List.of("unjobs.org", "iom.int", "gambia.iom.int");
+    private static final String MOJ_GAMBIA_FALLBACK_URL = "https://moj.gov.gm/category/contract-job/";
+    private static final String DEFAULT_REFERER = "https://www.google.com/";
 
     // Fallback Logos
     private static final String UNJOBS_LOGO = "https://media.licdn.com/dms/image/v2/C4E0BAQHQ1DD92ZSnkA/company-logo_200_200/company-logo_200_200/0/1670422173816?e=2147483647&v=beta&t=ZVwp-54BrQBhzPgiggGGnLE_iGE99WwvOdcFMKkRqIU";
@@ -55,126 +37,86 @@ public class ExternalJobService {
     private static final DateTimeFormatter GAMJOBS_DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.ENGLISH);
 
     private Document safelyFetchDocument(String url) {
-        return safelyFetchDocument(url, "https://www.google.com/");
+        return safelyFetchDocument(url, DEFAULT_REFERER);
     }
 
     private Document safelyFetchDocument(String url, String referer) {
-        Document doc = tryFetchWithJsoup(url, referer);
-        if (doc != null) return doc;
-
-        doc = tryFetchWithHttpClient(url, referer);
-        if (doc != null) return doc;
-
-        if (needsTextProxy(url)) {
-            doc = tryFetchViaTextProxy(url);
-            if (doc != null) return doc;
-        }
-
-        return null;
+        return pageFetcher.fetch(url, referer);
     }
 
-    private Document tryFetchWithJsoup(String url, String referer) {
-        try {
-            return Jsoup.connect(url)
-                    .userAgent(randomUserAgent())
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Cache-Control", "no-cache")
-                    .header("Connection", "keep-alive")
-                    .header("Referer", referer != null ? referer : "https://www.google.com/")
-                    .header("Upgrade-Insecure-Requests", "1")
-                    .header("Sec-Ch-Ua", "\"Chromium\";v=\"124\", \"Google Chrome\";v=\"124\", \"Not-A.Brand\";v=\"99\"")
-                    .header("Sec-Ch-Ua-Mobile", "?0")
-                    .header("Sec-Ch-Ua-Platform", "\"Windows\"")
-                    .header("Sec-Fetch-Dest", "document")
-                    .header("Sec-Fetch-Mode", "navigate")
-                    .header("Sec-Fetch-Site", "none")
-                    .header("Sec-Fetch-User", "?1")
-                    .followRedirects(true)
-                    .ignoreHttpErrors(false)
-                    .timeout(CONNECT_TIMEOUT_MS)
-                    .get();
-        } catch (HttpStatusException e) {
-            log.warn("Target blocked or missing (HTTP {}): {}", e.getStatusCode(), url);
-        } catch (Exception e) {
-            log.error("Failed to fetch document from {}: {}", url, e.getMessage());
+    /**
+     * Stage 1: the jobs listed on a source's landing page. Entries carry whatever the listing
+     * shows and serve as the fallback when a detail page cannot be fetched. A listing page
+     * identical to the one of the last completed sync is returned as unchanged, unparsed.
+     */
+    public SourcePage fetchListings(ExternalJobSource source) {
+        ExternalPageFetcher.Page page = pageFetcher.fetchPage(listingUrl(source), DEFAULT_REFERER);
+        if (page == null && source == ExternalJobSource.MOJ_GAMBIA) {
+            page = pageFetcher.fetchPage(MOJ_GAMBIA_FALLBACK_URL, DEFAULT_REFERER);
         }
-        return null;
-    }
-
-    private Document tryFetchWithHttpClient(String url, String referer) {
-        try {
-            HttpClient client = HttpClient.newBuilder()
-                    .followRedirects(HttpClient.Redirect.ALWAYS)
-                    .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
-                    .build();
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
-                    .GET()
-                    .header("User-Agent", randomUserAgent())
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Cache-Control", "no-cache")
-                    .header("Connection", "keep-alive")
-                    .header("Upgrade-Insecure-Requests", "1")
-                    .header("Sec-Ch-Ua", "\"Chromium\";v=\"124\", \"Google Chrome\";v=\"124\", \"Not-A.Brand\";v=\"99\"")
-                    .header("Sec-Ch-Ua-Mobile", "?0")
-                    .header("Sec-Ch-Ua-Platform", "\"Windows\"")
-                    .header("Sec-Fetch-Dest", "document")
-                    .header("Sec-Fetch-Mode", "navigate")
-                    .header("Sec-Fetch-Site", "none");
-            if (referer != null) requestBuilder.header("Referer", referer);
-
-            HttpResponse<String> response = client.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofString());
-            int status = response.statusCode();
-            if (status >= 200 && status < 400) {
-                return Jsoup.parse(response.body(), url);
-            }
-            log.warn("HttpClient fetch returned {} for {}", status, url);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("HttpClient fallback interrupted for {}: {}", url, e.getMessage());
-        } catch (IOException e) {
-            log.error("HttpClient fallback failed for {}: {}", url, e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.warn("Malformed URL while trying HttpClient for {}: {}", url, e.getMessage());
+        if (page == null) {
+            log.warn("{} landing page returned null. Check if blocked.", source.getLabel());
+            return new SourcePage(null, null, false, List.of());
         }
-        return null;
+        if (page.contentHash() != null && page.contentHash().equals(pageCache.syncedHash(page.url()))) {
+            return new SourcePage(page.url(), page.contentHash(), true, List.of());
+        }
+
+        Document doc = page.document();
+        List<JobResponseDTO> jobs = switch (source) {
+            case GAMJOBS -> listGamjobs(doc);
+            case WAVE -> listWaveJobs(doc);
+            case IOM_GAMBIA -> listIomGambiaJobs(doc);
+            case MOJ_GAMBIA -> listMojJobs(doc);
+            case UNJOBS -> listUnJobs(doc);
+        };
+        return new SourcePage(page.url(), page.contentHash(), false, jobs);
     }
 
-    private Document tryFetchViaTextProxy(String url) {
-        try {
-            String proxyUrl = "https://r.jina.ai/" + url;
-            log.info("Attempting text proxy for {}", url);
-            Document proxyResponse = tryFetchWithJsoup(proxyUrl, "https://www.google.com/");
-            if (proxyResponse != null) {
+    /**
+     * Records that every job of this listing page was processed, so an identical page is
+     * skipped next time.
+     */
+    public void markSynced(SourcePage page) {
+        if (page.url() != null) pageCache.markSynced(page.url(), page.contentHash());
+    }
 
-                return Jsoup.parse(proxyResponse.html(), url);
-            }
-        } catch (Exception e) {
-            log.warn("Text proxy fall back failed for {}: {}", url, e.getMessage());
-        }
-        return null;
+    private String listingUrl(ExternalJobSource source) {
+        return switch (source) {
+            case GAMJOBS -> GAMJOBS_URL;
+            case WAVE -> WAVE_URL;
+            case IOM_GAMBIA -> IOM_GAMBIA_URL;
+            case MOJ_GAMBIA -> MOJ_GAMBIA_URL;
+            case UNJOBS -> UNJOBS_GAMBIA_URL;
+        };
     }
 
-    private boolean needsTextProxy(String url) {
-        return TEXT_PROXY_TARGETS.stream().anyMatch(url::contains);
+    /**
+     * Stage 3: replaces listings with their detail pages, fetched concurrently within each
+     * host's politeness limits. Listings whose detail page fails keep their listing data (Wave
+     * postings are dropped).
+     */
+    public List<JobResponseDTO> fetchDetails(ExternalJobSource source, List<JobResponseDTO> listings) {
+        if (!source.isDetailPages()) return listings;
+        return pageFetcher.mapConcurrently(listings, JobResponseDTO::getUrl, listing -> fetchDetail(source, listing)).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    private String randomUserAgent() {
-        if (USER_AGENTS.isEmpty()) return "Mozilla/5.0";
-        return USER_AGENTS.get(ThreadLocalRandom.current().nextInt(USER_AGENTS.size()));
+    private JobResponseDTO fetchDetail(ExternalJobSource source, JobResponseDTO listing) {
+        return switch (source) {
+            case GAMJOBS -> mergeGamjobsDetail(listing, fetchGamjobsJobDetail(listing.getUrl()));
+            case WAVE -> fetchWaveJobDetail(listing.getUrl());
+            case UNJOBS -> {
+                JobResponseDTO detail = fetchUnJobDetail(listing.getUrl());
+                yield detail != null ? detail : listing;
+            }
+            default -> listing;
+        };
     }
 
-    public List<JobResponseDTO> fetchGamjobs() {
-        log.info("Fetching jobs from Gamjobs...");
+    private List<JobResponseDTO> listGamjobs(Document doc) {
         List<JobResponseDTO> jobs = new ArrayList<>();
-        Document doc = safelyFetchDocument(GAMJOBS_URL);
-        if (doc == null) {
-            log.warn("Gamjobs landing page returned null. Check if blocked.");
-            return jobs;
-        }
 
         // Expanded selectors for Gamjobs
         Elements jobElements = doc.select("article, .noo-job-item, .job-item, .job_listing, .job-list-item, .loop-item, div.item-job");
@@ -199,48 +141,48 @@ public class ExternalJobService {
             if (!url.isEmpty()) {
                 if (url.contains("/employers/") || url.contains("/job-category/") || url.contains("/job-location/") || url.equals(GAMJOBS_URL)) continue;
 
-                log.info("Processing Gamjobs link: {}", url);
-                
                 // Extract list-view data first (often more reliable/consistent as it's localized to the job item)
                 String listLogo = firstAttr(el, "src", ".item-featured img", ".company-logo img", ".job-company-logo img", "img.job-logo", "img.company-logo");
                 String listCompany = firstText(el, ".job-company", ".company", ".employer");
                 Element compUrlEl = el.selectFirst(".job-company a, a[href*=/employers/]");
                 String listCompUrl = compUrlEl != null ? compUrlEl.absUrl("href") : "";
+                String title = firstText(el, "h3", ".job-title", "h2");
+                if (title == null) title = "Unknown Title";
 
-                JobResponseDTO detail = fetchGamjobsJobDetail(url);
-                if (detail != null) {
-                    // Merge list data if detail is missing them or found a generic site logo
-                    if (detail.getEmployer() != null) {
-                        String detailLogo = detail.getEmployer().getLogo();
-                        boolean isGenericLogo = detailLogo.contains("logo.png") || detailLogo.contains("gamjobs") && detailLogo.contains("logo");
-                        
-                        if ((detailLogo.isEmpty() || isGenericLogo) && listLogo != null && !listLogo.isEmpty()) {
-                            detail.getEmployer().setLogo(listLogo);
-                        }
-                        
-                        if (detail.getEmployer().getWebsite().isEmpty() && !listCompUrl.isEmpty()) detail.getEmployer().setWebsite(listCompUrl);
-                        if (detail.getEmployer().getName().equals("N/A") && listCompany != null) detail.getEmployer().setName(listCompany);
-                    }
-                    jobs.add(detail);
-                } else {
-                    String title = firstText(el, "h3", ".job-title", "h2");
-                    if (title == null) title = "Unknown Title";
-                    
-                    jobs.add(JobResponseDTO.builder()
-                            .id(url).title(title).description("Details available at source.")
-                            .employer(JobResponseDTO.EmployerInfo.builder()
-                                    .name(listCompany != null ? listCompany : "Unknown")
-                                    .logo(listLogo != null ? listLogo : "")
-                                    .website(listCompUrl)
-                                    .build())
-                            .locationType("ONSITE").url(url).postedAt(LocalDateTime.now()).source("Gamjobs").build());
-                }
-                try { Thread.sleep(2000 + new Random().nextInt(2000)); } catch (InterruptedException ignored) {}
+                jobs.add(JobResponseDTO.builder()
+                        .id(url).title(title).description("Details available at source.")
+                        .employer(JobResponseDTO.EmployerInfo.builder()
+                                .name(listCompany != null ? listCompany : "Unknown")
+                                .logo(listLogo != null ? listLogo : "")
+                                .website(listCompUrl)
+                                .build())
+                        .locationType("ONSITE").url(url).postedAt(LocalDateTime.now()).source("Gamjobs").build());
             }
         }
         return jobs;
     }
 
+    private JobResponseDTO mergeGamjobsDetail(JobResponseDTO listing, JobResponseDTO detail) {
+        if (detail == null) return listing;
+        // Merge list data if detail is missing them or found a generic site logo
+        if (detail.getEmployer() != null && listing.getEmployer() != null) {
+            String listLogo = listing.getEmployer().getLogo();
+            String listCompUrl = listing.getEmployer().getWebsite();
+            String detailLogo = detail.getEmployer().getLogo();
+            boolean isGenericLogo = detailLogo.contains("logo.png") || detailLogo.contains("gamjobs") && detailLogo.contains("logo");
+
+            if ((detailLogo.isEmpty() || isGenericLogo) && !listLogo.isEmpty()) {
+                detail.getEmployer().setLogo(listLogo);
+            }
+
+            if (detail.getEmployer().getWebsite().isEmpty() && !listCompUrl.isEmpty()) detail.getEmployer().setWebsite(listCompUrl);
+            if (detail.getEmployer().getName().equals("N/A") && !listing.getEmployer().getName().equals("Unknown")) {
+                detail.getEmployer().setName(listing.getEmployer().getName());
+            }
+        }
+        return detail;
+    }
+
     private JobResponseDTO fetchGamjobsJobDetail(String jobUrl) {
         Document doc = safelyFetchDocument(jobUrl, GAMJOBS_URL);
         if (doc == null) return null;
@@ -302,20 +244,15 @@ public class ExternalJobService {
                 .locationType(location).url(jobUrl).postedAt(parseGamjobsDate(postedText)).source("Gamjobs").build();
     }
 
-    public List<JobResponseDTO> fetchWaveJobs() {
-        log.info("Fetching jobs from Wave...");
+    private List<JobResponseDTO> listWaveJobs(Document doc) {
         List<JobResponseDTO> jobs = new ArrayList<>();
-        Document doc = safelyFetchDocument(WAVE_URL);
-        if (doc == null) return jobs;
 
         List<Element> jobLinks = doc.select("a[href*=/en/careers/job/]");
         for (Element link : jobLinks) {
             String url = link.absUrl("href");
             String contextText = link.parent() != null ? link.parent().text() : "";
             if (contextText.toLowerCase().contains("gambia")) {
-                JobResponseDTO detail = fetchWaveJobDetail(url);
-                if (detail != null) jobs.add(detail);
-                try { Thread.sleep(500); } catch (InterruptedException ignored) {}
+                jobs.add(JobResponseDTO.builder().id(url).title(link.text().trim()).url(url).source("Wave").build());
             }
         }
         return jobs;
@@ -336,11 +273,8 @@ public class ExternalJobService {
                 .locationType("ONSITE").url(jobUrl).postedAt(LocalDateTime.now()).source("Wave").build();
     }
 
-    public List<JobResponseDTO> fetchIomGambiaJobs() {
-        log.info("Fetching jobs from IOM Gambia...");
+    private List<JobResponseDTO> listIomGambiaJobs(Document doc) {
         List<JobResponseDTO> jobs = new ArrayList<>();
-        Document doc = safelyFetchDocument(IOM_GAMBIA_URL);
-        if (doc == null) return jobs;
 
         Elements rows = doc.select("table tr, .view-content tr");
         for (Element row : rows) {
@@ -370,14 +304,8 @@ public class ExternalJobService {
         return jobs;
     }
 
-    public List<JobResponseDTO> fetchMojJobs() {
-        log.info("Fetching jobs from MOJ Gambia...");
+    private List<JobResponseDTO> listMojJobs(Document doc) {
         List<JobResponseDTO> jobs = new ArrayList<>();
-        Document doc = safelyFetchDocument(MOJ_GAMBIA_URL);
-        if (doc == null) {
-            doc = safelyFetchDocument("https://moj.gov.gm/category/contract-job/");
-            if (doc == null) return jobs;
-        }
 
         String siteLogo = firstAttr(doc, "src", ".logo img", "img[src*=logo]", "header img");
         Elements links = doc.select("a[href*=.pdf], .entry-content a, article h2 a, h3 a");
@@ -397,31 +325,21 @@ public class ExternalJobService {
         return jobs;
     }
 
-    public List<JobResponseDTO> fetchUnJobs() {
-        log.info("Fetching jobs from UNJobs (Gambia)...");
+    private List<JobResponseDTO> listUnJobs(Document doc) {
         List<JobResponseDTO> jobs = new ArrayList<>();
-        Document doc = safelyFetchDocument(UNJOBS_GAMBIA_URL);
-        if (doc == null) return jobs;
 
         Elements jobElements = doc.select("div.job");
         for (Element el : jobElements) {
             Element titleLink = el.selectFirst("a.jtitle");
             if (titleLink == null) continue;
             String jobUrl = titleLink.absUrl("href");
-            
-            JobResponseDTO detail = fetchUnJobDetail(jobUrl);
-            if (detail != null) {
-                jobs.add(detail);
-            } else {
-                String title = titleLink.text().trim();
-                jobs.add(JobResponseDTO.builder().id(jobUrl).title(title).description(el.html())
-                        .employer(JobResponseDTO.EmployerInfo.builder()
-                                .name("United Nations / NGO")
-                                .logo(UNJOBS_LOGO)
-                                .build())
-                        .locationType("ONSITE").url(jobUrl).postedAt(LocalDateTime.now()).source("UNJobs").build());
-            }
-            try { Thread.sleep(2000 + new Random().nextInt(2000)); } catch (InterruptedException ignored) {}
+            String title = titleLink.text().trim();
+            jobs.add(JobResponseDTO.builder().id(jobUrl).title(title).description(el.html())
+                    .employer(JobResponseDTO.EmployerInfo.builder()
+                            .name("United Nations / NGO")
+                            .logo(UNJOBS_LOGO)
+                            .build())
+                    .locationType("ONSITE").url(jobUrl).postedAt(LocalDateTime.now()).source("UNJobs").build());
         }
         return jobs;
     }
@@ -441,43 +359,6 @@ public class ExternalJobService {
                 .locationType("ONSITE").url(jobUrl).postedAt(LocalDateTime.now()).source("UNJobs").build();
     }
 
-    public List<JobResponseDTO> structureBatchWithAI(List<JobResponseDTO> dtos) {
-        if (dtos == null || dtos.isEmpty()) return new ArrayList<>();
-        List<String> rawDataList = dtos.stream()
-            .map(dto -> String.format("Title: %s\nEmployer: %s\nDescription: %s\nSource: %s", 
-                dto.getTitle(), 
-                dto.getEmployer() != null ? dto.getEmployer().getName() : "Unknown",
-                Jsoup.parse(dto.getDescription()).text(), 
-                dto.getSource()))
-            .collect(Collectors.toList());
-
-        List<String> jsonResults = geminiService.structureJobDataBatch(rawDataList);
-        for (int i = 0; i < dtos.size() && i < jsonResults.size(); i++) {
-            applyJsonToDto(dtos.get(i), jsonResults.get(i));
-        }
-        return dtos;
-    }
-
-    private void applyJsonToDto(JobResponseDTO dto, String jsonResult) {
-        try {
-            JsonNode node = objectMapper.readTree(jsonResult);
-            if (node.has("title")) dto.setTitle(node.get("title").asText());
-            if (node.has("description")) dto.setDescription(node.get("description").asText());
-            if (node.has("industry")) dto.setIndustry(node.get("industry").asText());
-            if (node.has("salary")) dto.setSalary(node.get("salary").asText());
-            if (node.has("requirements") && node.get("requirements").isArray()) {
-                List<String> reqs = new ArrayList<>();
-                node.get("requirements").forEach(r -> reqs.add(r.asText()));
-                dto.setRequirements(reqs);
-            }
-            if (node.has("skills") && node.get("skills").isArray()) {
-                List<String> skills = new ArrayList<>();
-                node.get("skills").forEach(s -> skills.add(s.asText()));
-                dto.setSkills(skills);
-            }
-        } catch (Exception e) { log.error("AI Parse Error", e); }
-    }
-
     private LocalDateTime parseGamjobsDate(String dateStr) {
         if (dateStr == null || dateStr.isBlank()) return LocalDateTime.now();
         try {
@@ -503,4 +384,11 @@ public class ExternalJobService {
         }
         return null;
     }
+
+    /**
+     * A source's listing page: its URL and content hash, whether it is unchanged since the last
+     * completed sync (then {@code jobs} is empty), and the jobs it lists.
+     */
+    public record SourcePage(String url, String contentHash, boolean unchanged, List<JobResponseDTO> jobs) {
+    }
 }
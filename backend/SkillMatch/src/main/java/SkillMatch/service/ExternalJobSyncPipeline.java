@@ -0,0 +1,176 @@
+package SkillMatch.service;
+
+import SkillMatch.dto.JobResponseDTO;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.util.ExternalJobSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * External job sync as a staged pipeline: list-page fetch, dedup against stored jobs, detail
+ * fetch, persist. Every source runs its stages concurrently on its own thread, so a full sync
+ * takes as long as the slowest source. Jobs are stored with their raw metadata as soon as they
+ * are scraped; AI structuring happens afterwards in {@link JobStructuringScheduler}, which starts
+ * on the first source's jobs while the others are still being scraped.
+ * Sources whose listing page is unchanged since their last complete sync are skipped; a listing
+ * counts as synced only once every one of its new jobs has been stored.
+ */
+@Service
+@Slf4j
+public class ExternalJobSyncPipeline {
+
+    private static final int DEDUP_CHUNK_SIZE = 500;
+
+    private final ExternalJobService externalJobService;
+    private final JobPostRepo jobPostRepo;
+    private final ExecutorService sourcePool;
+    private final MeterRegistry meterRegistry;
+
+    public ExternalJobSyncPipeline(ExternalJobService externalJobService,
+                                   JobPostRepo jobPostRepo,
+                                   MeterRegistry meterRegistry) {
+        this.externalJobService = externalJobService;
+        this.jobPostRepo = jobPostRepo;
+        this.meterRegistry = meterRegistry;
+        this.sourcePool = Executors.newFixedThreadPool(ExternalJobSource.values().length, namedThreads("JobSync-"));
+    }
+
+    /**
+     * Runs every source through the pipeline and blocks until all are persisted.
+     *
+     * @param persister stores one scraped job for the given source label; returns false if the
+     *                  job could not be stored, so the listing is scraped again next time
+     * @return number of new jobs handed to the persister, per source
+     */
+    public Map<ExternalJobSource, Integer> run(BiPredicate<JobResponseDTO, String> persister) {
+        Map<ExternalJobSource, Integer> persisted = new EnumMap<>(ExternalJobSource.class);
+        List<CompletableFuture<Void>> runs = new ArrayList<>();
+        for (ExternalJobSource source : ExternalJobSource.values()) {
+            runs.add(CompletableFuture.supplyAsync(() -> {
+                        Scraped scraped = scrape(source);
+                        boolean allStored = persist(source, scraped.jobs(), persister);
+                        if (scraped.complete() && allStored) externalJobService.markSynced(scraped.page());
+                        return scraped.jobs().size();
+                    }, sourcePool)
+                    .thenAccept(count -> {
+                        synchronized (persisted) {
+                            persisted.put(source, count);
+                        }
+                    })
+                    .exceptionally(e -> {
+                        log.error("{} sync failed", source.getLabel(), e);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(runs.toArray(new CompletableFuture[0])).join();
+        return persisted;
+    }
+
+    /**
+     * List, dedup and detail stages for one source. An unchanged listing page ends the run here.
+     */
+    Scraped scrape(ExternalJobSource source) {
+        long start = System.nanoTime();
+        ExternalJobService.SourcePage page = externalJobService.fetchListings(source);
+        meterRegistry.counter("external_jobs.listing", "source", source.getLabel(),
+                "result", page.unchanged() ? "unchanged" : "changed").increment();
+        if (page.unchanged()) {
+            log.info("{}: listing unchanged since last sync, skipped", source.getLabel());
+            return new Scraped(page, List.of(), false);
+        }
+        List<JobResponseDTO> fresh = dropKnown(page.jobs());
+        List<JobResponseDTO> jobs = externalJobService.fetchDetails(source, fresh);
+        log.info("{}: {} listed, {} new, {} scraped in {} ms", source.getLabel(), page.jobs().size(), fresh.size(),
+                jobs.size(), (System.nanoTime() - start) / 1_000_000);
+        return new Scraped(page, jobs, jobs.size() == fresh.size());
+    }
+
+    /**
+     * Drops listings already stored (by url or external id) and repeats within the listing,
+     * with one batched existence query per chunk of keys instead of two queries per job.
+     */
+    List<JobResponseDTO> dropKnown(List<JobResponseDTO> listings) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (JobResponseDTO dto : listings) {
+            if (dto.getUrl() != null) keys.add(dto.getUrl());
+            if (dto.getId() != null) keys.add(dto.getId());
+        }
+        Set<String> known = new HashSet<>();
+        List<String> keyList = new ArrayList<>(keys);
+        for (int i = 0; i < keyList.size(); i += DEDUP_CHUNK_SIZE) {
+            for (Object[] row : jobPostRepo.findExistingKeys(keyList.subList(i, Math.min(i + DEDUP_CHUNK_SIZE, keyList.size())))) {
+                if (row[0] != null) known.add((String) row[0]);
+                if (row[1] != null) known.add((String) row[1]);
+            }
+        }
+
+        List<JobResponseDTO> fresh = new ArrayList<>();
+        for (JobResponseDTO dto : listings) {
+            boolean isKnown = (dto.getUrl() != null && known.contains(dto.getUrl()))
+                    || (dto.getId() != null && known.contains(dto.getId()));
+            if (isKnown) continue;
+            fresh.add(dto);
+            // Later repeats of the same posting in this listing count as known
+            if (dto.getUrl() != null) known.add(dto.getUrl());
+            if (dto.getId() != null) known.add(dto.getId());
+        }
+        return fresh;
+    }
+
+    /**
+     * Hands every job to the persister; returns true if all of them were stored or already known.
+     */
+    private boolean persist(ExternalJobSource source, List<JobResponseDTO> jobs,
+                            BiPredicate<JobResponseDTO, String> persister) {
+        if (jobs.isEmpty()) {
+            log.info("No new jobs to process for source: {}", source.getLabel());
+            return true;
+        }
+        int failed = 0;
+        for (JobResponseDTO dto : jobs) {
+            if (!persister.test(dto, source.getLabel())) failed++;
+        }
+        if (failed > 0) {
+            log.warn("{}: {} of {} jobs could not be stored; the listing will be scraped again",
+                    source.getLabel(), failed, jobs.size());
+        }
+        return failed == 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sourcePool.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Output of the scraping stages; {@code complete} when no new job was lost on the way, so
+     * the listing can be marked synced once the jobs are persisted.
+     */
+    record Scraped(ExternalJobService.SourcePage page, List<JobResponseDTO> jobs, boolean complete) {
+    }
+}
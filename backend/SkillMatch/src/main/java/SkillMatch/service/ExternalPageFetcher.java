@@ -0,0 +1,328 @@
+package SkillMatch.service;
+
+import SkillMatch.util.RateLimiter;
+import SkillMatch.util.TokenHash;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Shared fetch engine for the external job scrapers. All pages go through one reused
+ * {@link HttpClient}, which keeps connections alive and negotiates HTTP/2 where the server
+ * supports it. Every host gets its own token bucket and a cap on in-flight requests, so
+ * concurrent scraping runs at the politeness limit of each site and never above it. Pages are
+ * kept in the {@link PageCache} and revalidated with conditional GETs.
+ */
+@Service
+@Slf4j
+public class ExternalPageFetcher {
+
+    private static final List<String> USER_AGENTS = List.of(
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/125.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4.1 Mobile/15E148 Safari/604.1"
+    );
+    private static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8";
+    private static final String DEFAULT_REFERER = "https://www.google.com/";
+    private static final String TEXT_PROXY = "https://r.jina.ai/";
+    private static final List<String> TEXT_PROXY_TARGETS = List.of("unjobs.org", "iom.int", "gambia.iom.int");
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final double requestsPerMinute;
+    private final int burst;
+    private final int maxConcurrencyPerHost;
+    private final Map<String, HostGate> hosts = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorService> hostPools = new ConcurrentHashMap<>();
+    private final PageCache pageCache;
+    private final MeterRegistry meterRegistry;
+
+    public ExternalPageFetcher(PageCache pageCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${external-jobs.fetch.requests-per-minute-per-host:30}") double requestsPerMinute,
+                               @Value("${external-jobs.fetch.burst:2}") int burst,
+                               @Value("${external-jobs.fetch.max-concurrency-per-host:2}") int maxConcurrencyPerHost,
+                               @Value("${external-jobs.fetch.connect-timeout-ms:10000}") long connectTimeoutMs,
+                               @Value("${external-jobs.fetch.request-timeout-ms:30000}") long requestTimeoutMs) {
+        this.pageCache = pageCache;
+        this.meterRegistry = meterRegistry;
+        this.requestsPerMinute = requestsPerMinute;
+        this.burst = Math.max(1, burst);
+        this.maxConcurrencyPerHost = Math.max(1, maxConcurrencyPerHost);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    /**
+     * Fetches and parses a page, trying the pooled client, then Jsoup, then the text proxy for
+     * sites that block scrapers. Returns null if every attempt fails.
+     */
+    public Document fetch(String url, String referer) {
+        Page page = fetchPage(url, referer);
+        return page != null ? page.document() : null;
+    }
+
+    /**
+     * Like {@link #fetch} but leaves parsing to the caller, so an unchanged page can be skipped
+     * without ever being parsed. Revalidates cached pages with a conditional GET.
+     */
+    public Page fetchPage(String url, String referer) {
+        Page page = fetchWithHttpClient(url, referer);
+        if (page != null) return page;
+
+        Document doc = fetchWithJsoup(url, referer);
+        if (doc != null) return Page.parsed(url, doc);
+
+        if (needsTextProxy(url)) {
+            log.info("Attempting text proxy for {}", url);
+            Document proxyResponse = fetchWithJsoup(TEXT_PROXY + url, DEFAULT_REFERER);
+            if (proxyResponse != null) return Page.parsed(url, Jsoup.parse(proxyResponse.html(), url));
+        }
+        return null;
+    }
+
+    /**
+     * Applies the task to every item and returns the results in input order. Each item runs on
+     * the pool of the host its URL points at, sized to the per-host concurrency, so one site's
+     * backlog never holds threads that another site's fetches are waiting for.
+     */
+    public <T, R> List<R> mapConcurrently(List<T> items, Function<T, String> urlOf, Function<T, R> task) {
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(poolFor(hostOf(urlOf.apply(item))).submit(() -> task.apply(item)));
+        }
+        List<R> results = new ArrayList<>(items.size());
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                log.warn("Concurrent fetch task failed: {}", e.getCause().getMessage());
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hostPools.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    private Page fetchWithHttpClient(String url, String referer) {
+        HostGate gate;
+        String host;
+        HttpRequest request;
+        PageCache.Entry cached = pageCache.get(url);
+        try {
+            URI uri = URI.create(url);
+            host = uri.getHost();
+            gate = gateFor(host);
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .timeout(requestTimeout)
+                    .GET()
+                    .header("User-Agent", randomUserAgent())
+                    .header("Accept", ACCEPT)
+                    .header("Accept-Language", "en-US,en;q=0.9")
+                    .header("Referer", referer != null ? referer : DEFAULT_REFERER)
+                    .header("Upgrade-Insecure-Requests", "1")
+                    .header("Sec-Ch-Ua", "\"Chromium\";v=\"124\", \"Google Chrome\";v=\"124\", \"Not-A.Brand\";v=\"99\"")
+                    .header("Sec-Ch-Ua-Mobile", "?0")
+                    .header("Sec-Ch-Ua-Platform", "\"Windows\"")
+                    .header("Sec-Fetch-Dest", "document")
+                    .header("Sec-Fetch-Mode", "navigate")
+                    .header("Sec-Fetch-Site", "none");
+            if (cached != null && cached.etag() != null) builder.header("If-None-Match", cached.etag());
+            if (cached != null && cached.lastModified() != null) builder.header("If-Modified-Since", cached.lastModified());
+            request = builder.build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed URL {}: {}", url, e.getMessage());
+            return null;
+        }
+
+        try {
+            gate.enter();
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                int status = response.statusCode();
+                if (status == 304 && cached != null) {
+                    recordCache(host, "not_modified");
+                    return new Page(url, cached.body(), cached.contentHash(), true, null);
+                }
+                if (status >= 200 && status < 400) {
+                    String body = response.body();
+                    String contentHash = TokenHash.hex(TokenHash.sha256(body));
+                    boolean unchanged = cached != null && contentHash.equals(cached.contentHash());
+                    recordCache(host, unchanged ? "unchanged" : "miss");
+                    pageCache.put(url, new PageCache.Entry(
+                            response.headers().firstValue("ETag").orElse(null),
+                            response.headers().firstValue("Last-Modified").orElse(null),
+                            contentHash, body));
+                    return new Page(url, body, contentHash, unchanged, null);
+                }
+                log.warn("HttpClient fetch returned {} for {}", status, url);
+            } finally {
+                gate.exit();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("HttpClient fetch interrupted for {}: {}", url, e.getMessage());
+        } catch (IOException e) {
+            log.error("HttpClient fetch failed for {}: {}", url, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Counts conditional-GET outcomes per host: not_modified (304), unchanged (same content
+     * hash) or miss (new or changed content).
+     */
+    private void recordCache(String host, String result) {
+        meterRegistry.counter("external_jobs.page_cache", "host", host != null ? host : "none", "result", result)
+                .increment();
+    }
+
+    private Document fetchWithJsoup(String url, String referer) {
+        try {
+            HostGate gate = gateFor(URI.create(url).getHost());
+            gate.enter();
+            try {
+                return Jsoup.connect(url)
+                        .userAgent(randomUserAgent())
+                        .header("Accept", ACCEPT)
+                        .header("Accept-Language", "en-US,en;q=0.9")
+                        .header("Cache-Control", "no-cache")
+                        .header("Referer", referer != null ? referer : DEFAULT_REFERER)
+                        .header("Upgrade-Insecure-Requests", "1")
+                        .header("Sec-Fetch-Dest", "document")
+                        .header("Sec-Fetch-Mode", "navigate")
+                        .header("Sec-Fetch-Site", "none")
+                        .header("Sec-Fetch-User", "?1")
+                        .followRedirects(true)
+                        .ignoreHttpErrors(false)
+                        .timeout((int) requestTimeout.toMillis())
+                        .get();
+            } finally {
+                gate.exit();
+            }
+        } catch (HttpStatusException e) {
+            log.warn("Target blocked or missing (HTTP {}): {}", e.getStatusCode(), url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to fetch document from {}: {}", url, e.getMessage());
+        }
+        return null;
+    }
+
+    private HostGate gateFor(String host) {
+        String key = host != null ? host.toLowerCase(Locale.ROOT) : "";
+        return hosts.computeIfAbsent(key, h -> new HostGate(
+                new RateLimiter(requestsPerMinute / 60.0, burst), new Semaphore(maxConcurrencyPerHost)));
+    }
+
+    /**
+     * Fetch threads of one host; idle threads exit so hosts that are not being scraped hold none.
+     */
+    private ExecutorService poolFor(String host) {
+        String key = host != null ? host.toLowerCase(Locale.ROOT) : "";
+        return hostPools.computeIfAbsent(key, h -> {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrencyPerHost, maxConcurrencyPerHost,
+                    30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "PageFetch-" + (h.isEmpty() ? "none" : h) + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        });
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return url != null ? URI.create(url).getHost() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean needsTextProxy(String url) {
+        return TEXT_PROXY_TARGETS.stream().anyMatch(url::contains);
+    }
+
+    private String randomUserAgent() {
+        return USER_AGENTS.get(ThreadLocalRandom.current().nextInt(USER_AGENTS.size()));
+    }
+
+    /**
+     * Politeness limits of one host: a request slot, then a token from the bucket.
+     */
+    private record HostGate(RateLimiter limiter, Semaphore inFlight) {
+        void enter() throws InterruptedException {
+            inFlight.acquire();
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        void exit() {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * A fetched page. {@code unchanged} means it matches the cached copy, either through a 304
+     * or an identical content hash; the HTML is only parsed when {@link #document()} is called.
+     */
+    public record Page(String url, String html, String contentHash, boolean unchanged, Document parsed) {
+
+        static Page parsed(String url, Document doc) {
+            String html = doc.outerHtml();
+            return new Page(url, html, TokenHash.hex(TokenHash.sha256(html)), false, doc);
+        }
+
+        public Document document() {
+            return parsed != null ? parsed : Jsoup.parse(html, url);
+        }
+    }
+}
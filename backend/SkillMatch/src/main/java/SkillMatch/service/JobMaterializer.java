@@ -0,0 +1,98 @@
+package SkillMatch.service;
+
+import SkillMatch.dto.JobResponseDTO;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.repository.SkillRepo;
+import SkillMatch.util.LocationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Builds {@link JobResponseDTO}s for a list of job ids with a fixed number of scalar queries
+ * (job + employer columns, skill titles, requirements) per chunk of ids, instead of loading
+ * JobPost entities and initializing their collections one job at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class JobMaterializer {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final JobPostRepo jobPostRepo;
+    private final SkillRepo skillRepo;
+
+    /**
+     * Returns one DTO per id that still exists, in the order the ids were given.
+     */
+    public List<JobResponseDTO> materialize(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return new ArrayList<>();
+        List<Long> ordered = ids.stream().filter(Objects::nonNull).distinct().toList();
+
+        Map<Long, JobResponseDTO> byId = new HashMap<>(ordered.size() * 2);
+        for (int from = 0; from < ordered.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ordered.subList(from, Math.min(from + CHUNK_SIZE, ordered.size()));
+            loadChunk(chunk, byId);
+        }
+
+        List<JobResponseDTO> result = new ArrayList<>(byId.size());
+        for (Long id : ordered) {
+            JobResponseDTO dto = byId.get(id);
+            if (dto != null) result.add(dto);
+        }
+        return result;
+    }
+
+    public List<JobResponseDTO> materialize(long[] ids) {
+        return materialize(Arrays.stream(ids).boxed().toList());
+    }
+
+    private void loadChunk(List<Long> ids, Map<Long, JobResponseDTO> byId) {
+        for (Object[] row : jobPostRepo.findFlatRowsByIdIn(ids)) {
+            JobResponseDTO dto = toDto(row);
+            dto.setSkills(new ArrayList<>());
+            dto.setRequirements(new ArrayList<>());
+            byId.put((Long) row[0], dto);
+        }
+        for (Object[] row : skillRepo.findJobSkillTitlesByJobIdIn(ids)) {
+            JobResponseDTO dto = byId.get((Long) row[0]);
+            if (dto != null) dto.getSkills().add((String) row[1]);
+        }
+        for (Object[] row : jobPostRepo.findRequirementsByJobIdIn(ids)) {
+            JobResponseDTO dto = byId.get((Long) row[0]);
+            if (dto != null) dto.getRequirements().add((String) row[1]);
+        }
+    }
+
+    /**
+     * Mirrors {@link JobPostService#convertToResponseDTO} for a row of
+     * {@link JobPostRepo#findFlatRowsByIdIn}.
+     */
+    private JobResponseDTO toDto(Object[] row) {
+        String companyName = (String) row[3];
+        String companyLogo = (String) row[4];
+        LocationType locationType = (LocationType) row[5];
+        String source = (String) row[10];
+        String employerName = (String) row[11];
+        String employerPicture = (String) row[12];
+        boolean hasEmployer = employerName != null || employerPicture != null;
+
+        return JobResponseDTO.builder()
+                .id(String.valueOf(row[0]))
+                .title((String) row[1])
+                .description((String) row[2])
+                .employer(JobResponseDTO.EmployerInfo.builder()
+                        .name(companyName != null ? companyName : (hasEmployer ? employerName : "N/A"))
+                        .logo(companyLogo != null ? companyLogo : (hasEmployer ? employerPicture : ""))
+                        .build())
+                .locationType(locationType != null ? locationType.name() : "N/A")
+                .salary((String) row[6])
+                .url((String) row[7])
+                .industry((String) row[8])
+                .postedAt((LocalDateTime) row[9])
+                .source(source != null ? source : "Own")
+                .build();
+    }
+}
@@ -9,7 +9,9 @@ import SkillMatch.repository.JobPostRepo;
 import SkillMatch.repository.UserInteractionRepository;
 import SkillMatch.repository.UserRepo;
 import SkillMatch.model.Skill;
+import SkillMatch.util.ExternalJobSource;
 import SkillMatch.util.LocationType;
+import SkillMatch.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -28,7 +30,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -42,9 +43,13 @@ public class JobPostService {
 
     private final JobPostRepo repo;
     private final UserInteractionRepository interactionRepo;
-    private final ExternalJobService externalJobService;
     private final UserRepo userRepository;
     private final JobNotificationEmailService jobNotificationEmailService;
+    private final JobSkillIndex jobSkillIndex;
+    private final UserClickProfileCache userClickProfileCache;
+    private final JobMaterializer jobMaterializer;
+    private final ExternalJobSyncPipeline syncPipeline;
+    private final JobStructuringScheduler jobStructuringScheduler;
 
     public long countJobs() {
         return repo.count();
@@ -65,6 +70,7 @@ public class JobPostService {
         User user = userRepository.findByEmail(email);
         jobPost.setEmployer(user.getEmployer());
         JobPost savedJob = repo.save(jobPost);
+        jobSkillIndex.index(savedJob);
         jobNotificationEmailService.notifyIndustryMatches(savedJob);
         return savedJob;
     }
@@ -90,38 +96,18 @@ public class JobPostService {
         List<Object[]> topClicks = interactionRepo.findTopClickedJobIds(PageRequest.of(0, Math.max(1, limit)));
 
         if (topClicks.isEmpty()) {
-            return getRecentJobs(Math.max(1, limit)).stream()
-                    .map(this::convertToResponseDTO)
+            List<Long> recentIds = repo.findFeedKeysLatestFirst(PageRequest.of(0, Math.max(1, limit))).stream()
+                    .map(key -> (Long) key[0])
                     .collect(Collectors.toList());
+            return jobMaterializer.materialize(recentIds);
         }
 
-        List<Long> ids = topClicks.stream()
-                .map(row -> (Long) row[0])
-                .collect(Collectors.toList());
-
-        Map<Long, Long> clickCounts = new HashMap<>();
+        // Ties on click count go to the newer (higher id) job.
+        TopKSelector top = new TopKSelector(Math.max(1, limit));
         for (Object[] row : topClicks) {
-            clickCounts.put((Long) row[0], (Long) row[1]);
+            top.offer((Long) row[0], (Long) row[1]);
         }
-
-        Map<Long, JobPost> jobById = repo.findAllById(ids).stream()
-                .collect(Collectors.toMap(JobPost::getId, j -> j));
-
-        return ids.stream()
-                .map(jobById::get)
-                .filter(java.util.Objects::nonNull)
-                .sorted((a, b) -> {
-                    long aClicks = clickCounts.getOrDefault(a.getId(), 0L);
-                    long bClicks = clickCounts.getOrDefault(b.getId(), 0L);
-                    if (aClicks == bClicks) {
-                        return Comparator.comparing(JobPost::getPostedAt, Comparator.nullsLast(Comparator.reverseOrder()))
-                                .compare(a, b);
-                    }
-                    return Long.compare(bClicks, aClicks);
-                })
-                .limit(Math.max(1, limit))
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return jobMaterializer.materialize(top.idsDescending());
     }
 
     public JobResponseDTO convertToResponseDTO(JobPost jobPost) {
@@ -166,6 +152,7 @@ public class JobPostService {
                             .jobPost(jobPost)
                             .interactionType("CLICK")
                             .build());
+                    userClickProfileCache.invalidate(user.getId());
                 }
             }
         } catch (Exception e) {
@@ -175,8 +162,11 @@ public class JobPostService {
         return jobPost;
     }
 
-    public List<JobPost> searchPosts(String query){
-        return repo.searchJobs(query);
+    public List<JobResponseDTO> searchPosts(String query){
+        List<Long> ids = repo.searchJobKeys(query).stream()
+                .map(key -> (Long) key[0])
+                .collect(Collectors.toList());
+        return jobMaterializer.materialize(ids);
     }
 
     public JobPost updateJobPost(long id, JobPost newPost){
@@ -196,7 +186,9 @@ public class JobPostService {
         if (newPost.getRequiredSkills() != null) {
             oldPost.setRequiredSkills(newPost.getRequiredSkills());
         }
-        return repo.save(oldPost);
+        JobPost savedPost = repo.save(oldPost);
+        jobSkillIndex.index(savedPost);
+        return savedPost;
     }
 
     public List<JobPost> getJobsByLoggedInEmployer() {
@@ -209,6 +201,7 @@ public class JobPostService {
     public JobPost deletePost(long id){
         JobPost post=repo.findById(id).orElseThrow(()->new ResourceNotFoundException("Job post not found"));
         repo.deleteById(id);
+        jobSkillIndex.remove(id);
         return post;
     }
 
@@ -216,38 +209,15 @@ public class JobPostService {
     public void syncExternalJobs() {
         log.info("Starting manual job sync in background...");
         cleanupExpiredJobsBeforeSync();
-        
-        try {
-            List<JobResponseDTO> gamjobs = externalJobService.fetchGamjobs();
-            saveExternalJobs(gamjobs, "Gamjobs");
-        } catch (Exception e) { log.error("Gamjobs sync failed", e); }
 
-        try {
-            List<JobResponseDTO> waveJobs = externalJobService.fetchWaveJobs();
-            saveExternalJobs(waveJobs, "Wave");
-        } catch (Exception e) { log.error("Wave sync failed", e); }
-
-        try {
-            List<JobResponseDTO> iomJobs = externalJobService.fetchIomGambiaJobs();
-            saveExternalJobs(iomJobs, "IOMGambia");
-        } catch (Exception e) { log.error("IOM sync failed", e); }
-
-        try {
-            List<JobResponseDTO> mojJobs = externalJobService.fetchMojJobs();
-            saveExternalJobs(mojJobs, "MOJGambia");
-        } catch (Exception e) { log.error("MOJ sync failed", e); }
-
-        try {
-            List<JobResponseDTO> unJobs = externalJobService.fetchUnJobs();
-            saveExternalJobs(unJobs, "UNJobs");
-        } catch (Exception e) { log.error("UNJobs sync failed", e); }
-        
-        log.info("Sync completed.");
+        long start = System.nanoTime();
+        Map<ExternalJobSource, Integer> persisted = syncPipeline.run(this::persistExternalJob);
+        log.info("Sync completed in {} ms: {}", (System.nanoTime() - start) / 1_000_000, persisted);
     }
 
     private void cleanupExpiredJobsBeforeSync() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(JOB_RETENTION_DAYS);
-        long deleted = repo.deleteByPostedAtBefore(cutoff);
+        long deleted = deleteJobsPostedBefore(cutoff);
         if (deleted > 0) {
             log.info("Pre-sync cleanup: deleted {} jobs older than {} days (before {})", deleted, JOB_RETENTION_DAYS, cutoff);
         } else {
@@ -255,65 +225,15 @@ public class JobPostService {
         }
     }
 
-    private void saveExternalJobs(List<JobResponseDTO> jobs, String source) {
-        log.info("Processing {} jobs from {}", jobs.size(), source);
-        
-        // Pre-filter: Remove jobs that already exist in the database to save AI tokens
-        List<JobResponseDTO> newJobs = jobs.stream()
-            .filter(dto -> {
-                boolean existsByUrl = dto.getUrl() != null && repo.existsByJobUrl(dto.getUrl());
-                boolean existsById = dto.getId() != null && repo.existsByExternalId(dto.getId());
-                return !existsByUrl && !existsById;
-            })
-            .collect(Collectors.toList());
-
-        if (newJobs.isEmpty()) {
-            log.info("No new jobs to process for source: {}", source);
-            return;
-        }
-
-        log.info("Identified {} new unique jobs for processing", newJobs.size());
-
-
-        int batchSize = 6; 
-        for (int i = 0; i < newJobs.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, newJobs.size());
-            List<JobResponseDTO> batch = newJobs.subList(i, end);
-            try {
-                List<JobResponseDTO> structuredBatch = externalJobService.structureBatchWithAI(batch);
-                if (structuredBatch.isEmpty()) {
-                    log.warn("AI extraction failed/quota hit. Falling back to native metadata for source: {}", source);
-                    batch.forEach(dto -> this.persistExternalJob(dto, source));
-                } else {
-                    for (JobResponseDTO dto : structuredBatch) {
-                        this.persistExternalJob(dto, source);
-                    }
-                }
-                // Longer pause to respect Gemini Free Tier limits (15s between batches)
-                if (end < newJobs.size()) {
-                    log.info("Batch completed. Pausing 15s to respect AI quota...");
-                    Thread.sleep(15000); 
-                }
-            } catch (Exception e) {
-                log.error("Batch processing fallback: {}", e.getMessage());
-                for (JobResponseDTO dto : batch) this.persistExternalJob(dto, source);
-            }
-        }
-    }
-
+    /**
+     * Stores one scraped job with its raw metadata. Returns true if the job was stored or already
+     * exists, false if it could not be stored.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void persistExternalJob(JobResponseDTO dto, String source) {
+    public boolean persistExternalJob(JobResponseDTO dto, String source) {
         try {
-            // Check if job already exists by URL or External ID
-            if (dto.getUrl() != null && repo.existsByJobUrl(dto.getUrl())) {
-                log.info("Job already exists by URL: {}", dto.getUrl());
-                return;
-            }
-            if (dto.getId() != null && repo.existsByExternalId(dto.getId())) {
-                log.info("Job already exists by External ID: {}", dto.getId());
-                return;
-            }
-
+            // Known jobs were dropped by the pipeline's batched dedup; a job stored since then
+            // hits the unique job_url / external_id constraints below
             JobPost post = new JobPost();
             post.setExternalId(dto.getId()); 
             post.setTitle(dto.getTitle());
@@ -337,11 +257,16 @@ public class JobPostService {
             }
             post.setRequiredSkills(skills);
             JobPost savedPost = repo.saveAndFlush(post);
-            jobNotificationEmailService.notifyIndustryMatches(savedPost);
+            jobSkillIndex.index(savedPost);
+            // Stored raw; industry alerts go out once the job has been structured
+            jobStructuringScheduler.enqueue(savedPost.getId());
+            return true;
         } catch (DataIntegrityViolationException e) {
             log.info("Job already exists: {}", dto.getTitle());
+            return true;
         } catch (Exception e) {
             log.error("Persist error: {}", e.getMessage());
+            return false;
         }
     }
 
@@ -358,7 +283,14 @@ public class JobPostService {
     public void deleteOldJobs() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(JOB_RETENTION_DAYS);
         log.info("Started automatic cleanup of jobs older than {} days (before {})", JOB_RETENTION_DAYS, cutoff);
-        long deleted = repo.deleteByPostedAtBefore(cutoff);
+        long deleted = deleteJobsPostedBefore(cutoff);
         log.info("Finished automatic cleanup. Deleted {} expired jobs.", deleted);
     }
+
+    private long deleteJobsPostedBefore(LocalDateTime cutoff) {
+        List<Long> expiredIds = repo.findIdsByPostedAtBefore(cutoff);
+        long deleted = repo.deleteByPostedAtBefore(cutoff);
+        jobSkillIndex.removeAll(expiredIds);
+        return deleted;
+    }
 }
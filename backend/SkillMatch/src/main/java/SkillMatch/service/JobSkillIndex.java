@@ -0,0 +1,223 @@
+package SkillMatch.service;
+
+import SkillMatch.model.JobPost;
+import SkillMatch.model.Skill;
+import SkillMatch.repository.SkillRepo;
+import SkillMatch.util.SkillIds;
+import SkillMatch.util.SkillDictionary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident skill -> job inverted index used to narrow recommendation scoring to jobs
+ * that share at least one skill with the candidate. Skill titles are interned to dense
+ * {@link SkillDictionary} ids and every id in use keeps a sorted primitive posting list of job
+ * ids; lists of skills no indexed job has any more are dropped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobSkillIndex {
+
+    private final SkillRepo skillRepo;
+    private final SkillDictionary skillDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, PostingList> postings = new HashMap<>();
+    private final Map<Long, int[]> skillsByJob = new HashMap<>();
+    private volatile boolean ready = false;
+
+    /**
+     * Rebuilds the index from the skill table. Runs on startup and periodically to heal
+     * any drift left by rolled back transactions or writes made by other nodes.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${recommendation.skill-index.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        List<Object[]> rows = skillRepo.findJobSkillTitles();
+
+        Map<Long, List<String>> titlesByJob = new HashMap<>();
+        for (Object[] row : rows) {
+            titlesByJob.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        int skills;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            skillsByJob.clear();
+            titlesByJob.forEach(this::addUnlocked);
+            skills = postings.size();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Job skill index rebuilt: {} jobs, {} distinct skills", titlesByJob.size(), skills);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or replaces the postings of a job with its current required skills.
+     */
+    public void index(JobPost job) {
+        if (job == null || job.getId() == null) return;
+        List<String> titles = new ArrayList<>();
+        if (job.getRequiredSkills() != null) {
+            for (Skill skill : job.getRequiredSkills()) {
+                if (skill != null && skill.getTitle() != null) titles.add(skill.getTitle());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(job.getId());
+            addUnlocked(job.getId(), titles);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long jobId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(jobId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<Long> jobIds) {
+        if (jobIds == null || jobIds.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            for (Long jobId : jobIds) {
+                if (jobId != null) removeUnlocked(jobId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of jobs sharing at least one of the given (normalized) skill titles,
+     * ordered by number of shared skills descending and then newest id first, capped at limit.
+     */
+    public long[] findJobsSharingSkills(Collection<String> normalizedTitles, int limit) {
+        if (normalizedTitles == null || normalizedTitles.isEmpty() || limit <= 0) return new long[0];
+
+        long[] merged;
+        int maxShared;
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (int term : skillDictionary.knownIdsOf(normalizedTitles)) {
+                PostingList list = postings.get(term);
+                if (list != null) lists.add(list);
+            }
+            int total = 0;
+            for (PostingList list : lists) total += list.size;
+            if (total == 0) return new long[0];
+
+            merged = new long[total];
+            int offset = 0;
+            for (PostingList list : lists) {
+                System.arraycopy(list.ids, 0, merged, offset, list.size);
+                offset += list.size;
+            }
+            maxShared = lists.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Run-length encode the sorted postings into (job id, shared skill count) pairs.
+        Arrays.sort(merged);
+        long[] ids = new long[merged.length];
+        int[] shared = new int[merged.length];
+        int distinct = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (distinct > 0 && ids[distinct - 1] == merged[i]) {
+                shared[distinct - 1]++;
+            } else {
+                ids[distinct] = merged[i];
+                shared[distinct] = 1;
+                distinct++;
+            }
+        }
+
+        // Shared counts are bounded by the number of query terms, so a counting sort orders them in O(n).
+        int[] bucketStart = new int[maxShared + 2];
+        for (int i = 0; i < distinct; i++) bucketStart[maxShared - shared[i] + 1]++;
+        for (int b = 1; b < bucketStart.length; b++) bucketStart[b] += bucketStart[b - 1];
+
+        long[] ordered = new long[distinct];
+        for (int i = distinct - 1; i >= 0; i--) {
+            ordered[bucketStart[maxShared - shared[i]]++] = ids[i];
+        }
+        return distinct <= limit ? ordered : Arrays.copyOf(ordered, limit);
+    }
+
+    /**
+     * Returns the sorted skill ids of an indexed job, or null if the job is not indexed.
+     * The returned array is shared and must not be modified.
+     */
+    public int[] skillIdsOf(long jobId) {
+        lock.readLock().lock();
+        try {
+            return skillsByJob.get(jobId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addUnlocked(Long jobId, List<String> titles) {
+        int[] terms = skillDictionary.idsOf(titles);
+        if (terms.length == 0) return;
+        for (int term : terms) {
+            postings.computeIfAbsent(term, t -> new PostingList()).add(jobId);
+        }
+        skillsByJob.put(jobId, terms);
+    }
+
+    private void removeUnlocked(long jobId) {
+        int[] terms = skillsByJob.remove(jobId);
+        if (terms == null) return;
+        for (int term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) continue;
+            list.remove(jobId);
+            if (list.size == 0) postings.remove(term);
+        }
+    }
+
+    /**
+     * Sorted, growable array of job ids.
+     */
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return;
+            int insertAt = -pos - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) return;
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package SkillMatch.service;
+
+import SkillMatch.model.JobEnrichmentTask;
+import SkillMatch.model.JobPost;
+import SkillMatch.model.Skill;
+import SkillMatch.repository.JobEnrichmentQueueRepository;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.util.RateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Structures scraped jobs with Gemini after they have been stored with their raw metadata.
+ * The sync persists each job immediately and queues it in job_enrichment_queue; this scheduler
+ * drains the queue while other sources are still being scraped. Batches are packed up to a
+ * prompt token budget rather than a fixed job count, and every call must fit both the
+ * requests-per-minute and the tokens-per-minute bucket. A quota rejection pauses the scheduler
+ * with exponential backoff instead of sleeping inline; other failures retry per job until
+ * max-attempts, after which the job simply keeps its raw metadata.
+ */
+@Service
+@Slf4j
+public class JobStructuringScheduler {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    /** Per-job "### JOB n ###" header and separators in the prompt. */
+    private static final int JOB_HEADER_TOKENS = 8;
+
+    private final JobEnrichmentQueueRepository queueRepository;
+    private final JobPostRepo jobPostRepo;
+    private final GeminiService geminiService;
+    private final JobSkillIndex jobSkillIndex;
+    private final JobNotificationEmailService jobNotificationEmailService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final RateLimiter requestQuota;
+    private final RateLimiter tokenQuota;
+    private final int maxBatchTokens;
+
+    @Value("${gemini.structuring.max-batch-jobs:10}")
+    private int maxBatchJobs;
+
+    @Value("${gemini.structuring.max-job-chars:6000}")
+    private int maxJobChars;
+
+    @Value("${gemini.structuring.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${gemini.structuring.base-backoff-ms:15000}")
+    private long baseBackoffMs;
+
+    @Value("${gemini.structuring.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    private int consecutiveRateLimits;
+    private long pausedUntilNanos = System.nanoTime();
+
+    public JobStructuringScheduler(JobEnrichmentQueueRepository queueRepository,
+                                   JobPostRepo jobPostRepo,
+                                   GeminiService geminiService,
+                                   JobSkillIndex jobSkillIndex,
+                                   JobNotificationEmailService jobNotificationEmailService,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${gemini.quota.requests-per-minute:15}") double requestsPerMinute,
+                                   @Value("${gemini.quota.tokens-per-minute:1000000}") double tokensPerMinute,
+                                   @Value("${gemini.structuring.max-batch-tokens:8000}") int maxBatchTokens) {
+        this.queueRepository = queueRepository;
+        this.jobPostRepo = jobPostRepo;
+        this.geminiService = geminiService;
+        this.jobSkillIndex = jobSkillIndex;
+        this.jobNotificationEmailService = jobNotificationEmailService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        // Bucket depth of one request and one full batch keeps any 60 s window close to the quota
+        this.requestQuota = RateLimiter.perMinute(requestsPerMinute);
+        this.tokenQuota = new RateLimiter(tokensPerMinute / 60.0, maxBatchTokens);
+        this.maxBatchTokens = maxBatchTokens;
+    }
+
+    /**
+     * Queues a freshly stored raw job for structuring. Without an API key the job stays raw.
+     */
+    public void enqueue(Long jobPostId) {
+        if (!geminiService.isConfigured()) return;
+        queueRepository.save(JobEnrichmentTask.builder()
+                .jobPostId(jobPostId)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(initialDelayString = "${gemini.structuring.interval-ms:2000}",
+            fixedDelayString = "${gemini.structuring.interval-ms:2000}")
+    public void dispatch() {
+        if (!geminiService.isConfigured()) return;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            if (pausedUntilNanos - System.nanoTime() > 0) return;
+            Batch batch = nextBatch();
+            if (batch.isEmpty() || !reserve(batch.tokens()) || !send(batch)) return;
+        }
+    }
+
+    /**
+     * Takes the oldest ready jobs in order until the next one would exceed the token budget.
+     */
+    Batch nextBatch() {
+        List<JobEnrichmentTask> ready = queueRepository.findReady(LocalDateTime.now(), PageRequest.of(0, maxBatchJobs));
+        if (ready.isEmpty()) return Batch.EMPTY;
+        Map<Long, JobPost> jobs = jobPostRepo.findAllById(ready.stream().map(JobEnrichmentTask::getJobPostId).toList())
+                .stream().collect(Collectors.toMap(JobPost::getId, Function.identity()));
+
+        List<Long> orphaned = new ArrayList<>();
+        List<JobEnrichmentTask> tasks = new ArrayList<>();
+        List<JobPost> posts = new ArrayList<>();
+        List<String> prompts = new ArrayList<>();
+        int tokens = geminiService.promptOverheadTokens();
+        for (JobEnrichmentTask task : ready) {
+            JobPost job = jobs.get(task.getJobPostId());
+            if (job == null) {
+                orphaned.add(task.getId());
+                continue;
+            }
+            String raw = rawText(job);
+            int jobTokens = GeminiService.estimateTokens(raw) + JOB_HEADER_TOKENS;
+            if (!tasks.isEmpty() && tokens + jobTokens > maxBatchTokens) break;
+            tasks.add(task);
+            posts.add(job);
+            prompts.add(raw);
+            tokens += jobTokens;
+        }
+        if (!orphaned.isEmpty()) queueRepository.deleteByIdIn(orphaned);
+        return new Batch(tasks, posts, prompts, Math.min(tokens, maxBatchTokens));
+    }
+
+    /**
+     * Takes one request and the batch's tokens only if both buckets can cover them right now.
+     */
+    private boolean reserve(int tokens) {
+        // Only the scheduler thread takes from these buckets, so check-then-take cannot race
+        if (!requestQuota.canAcquire(1) || !tokenQuota.canAcquire(tokens)) return false;
+        return requestQuota.tryAcquire() && tokenQuota.tryAcquire(tokens);
+    }
+
+    private boolean send(Batch batch) {
+        GeminiService.StructuredBatch result;
+        try {
+            result = geminiService.structureJobDataBatch(batch.prompts());
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            consecutiveRateLimits++;
+            long backoffMs = backoffMs(consecutiveRateLimits);
+            pausedUntilNanos = System.nanoTime() + backoffMs * 1_000_000L;
+            meterRegistry.counter("gemini.requests", "result", "rate_limited").increment();
+            log.warn("Gemini quota exceeded; pausing structuring for {} ms", backoffMs);
+            return false;
+        }
+        consecutiveRateLimits = 0;
+        if (result.totalTokens() > batch.tokens()) tokenQuota.consume(result.totalTokens() - batch.tokens());
+        meterRegistry.counter("gemini.requests", "result", result.results().isEmpty() ? "error" : "ok").increment();
+
+        List<Long> done = new ArrayList<>();
+        List<JobEnrichmentTask> failed = new ArrayList<>();
+        for (int i = 0; i < batch.tasks().size(); i++) {
+            String json = i < result.results().size() ? result.results().get(i) : null;
+            if (json != null && apply(batch.jobs().get(i), json)) {
+                done.add(batch.tasks().get(i).getId());
+            } else {
+                failed.add(batch.tasks().get(i));
+            }
+        }
+        if (!done.isEmpty()) queueRepository.deleteByIdIn(done);
+        if (!failed.isEmpty()) retryLater(failed);
+        log.info("Structured {} of {} jobs ({} estimated tokens)", done.size(), batch.tasks().size(), batch.tokens());
+        return !done.isEmpty();
+    }
+
+    /**
+     * Gives up on tasks that have used their last attempt and reschedules the rest, each with the
+     * backoff for its own attempt count.
+     */
+    private void retryLater(List<JobEnrichmentTask> failed) {
+        List<Long> exhausted = new ArrayList<>();
+        Map<Integer, List<Long>> retryByAttempts = new TreeMap<>();
+        for (JobEnrichmentTask task : failed) {
+            int attempts = task.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                exhausted.add(task.getId());
+            } else {
+                retryByAttempts.computeIfAbsent(attempts, a -> new ArrayList<>()).add(task.getId());
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            queueRepository.deleteByIdIn(exhausted);
+            log.warn("Gave up structuring {} jobs after {} attempts; they keep their raw metadata", exhausted.size(), maxAttempts);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        retryByAttempts.forEach((attempts, ids) ->
+                queueRepository.markFailed(ids, now.plusNanos(backoffMs(attempts) * 1_000_000L)));
+    }
+
+    private boolean apply(JobPost job, String json) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node.hasNonNull("title")) job.setTitle(node.get("title").asText());
+            if (node.hasNonNull("description")) job.setDescription(node.get("description").asText());
+            if (node.hasNonNull("industry")) job.setIndustry(node.get("industry").asText());
+            if (node.hasNonNull("salary")) job.setSalary(node.get("salary").asText());
+            if (node.has("requirements") && node.get("requirements").isArray()) {
+                List<String> requirements = new ArrayList<>();
+                node.get("requirements").forEach(r -> requirements.add(r.asText()));
+                job.setRequirements(requirements);
+            }
+            if (node.has("skills") && node.get("skills").isArray()) {
+                if (job.getRequiredSkills() == null) job.setRequiredSkills(new ArrayList<>());
+                job.getRequiredSkills().clear();
+                node.get("skills").forEach(s -> {
+                    Skill skill = new Skill();
+                    skill.setTitle(s.asText());
+                    skill.setJobPost(job);
+                    job.getRequiredSkills().add(skill);
+                });
+            }
+            JobPost saved = jobPostRepo.save(job);
+            jobSkillIndex.index(saved);
+            jobNotificationEmailService.notifyIndustryMatches(saved);
+            return true;
+        } catch (Exception e) {
+            log.error("Could not apply structured data to job {}: {}", job.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private String rawText(JobPost job) {
+        String description = job.getDescription() != null ? Jsoup.parse(job.getDescription()).text() : "";
+        if (description.length() > maxJobChars) description = description.substring(0, maxJobChars);
+        return String.format("Title: %s\nEmployer: %s\nDescription: %s\nSource: %s",
+                job.getTitle(), job.getCompanyName() != null ? job.getCompanyName() : "Unknown",
+                description, job.getSource());
+    }
+
+    long backoffMs(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(maxBackoffMs, baseBackoffMs << shift);
+    }
+
+    /**
+     * Queue rows, their jobs and raw prompt texts in the same order, with the estimated prompt tokens.
+     */
+    record Batch(List<JobEnrichmentTask> tasks, List<JobPost> jobs, List<String> prompts, int tokens) {
+        static final Batch EMPTY = new Batch(List.of(), List.of(), List.of(), 0);
+
+        boolean isEmpty() {
+            return tasks.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package SkillMatch.service;
+
+import SkillMatch.util.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Messaging relationship of a user pair, keyed by the ordered (low id, high id) pair and kept in
+ * a bounded LRU cache with a TTL, so repeated sends between the same users skip the connection
+ * and conversation lookups. Entries are evicted when a connection is accepted or removed and
+ * upgraded in place when a message opens a conversation.
+ */
+@Service
+public class MessageAuthorizationCache {
+
+    public enum PairStatus {
+        /** The users have an accepted connection. */
+        CONNECTED,
+        /** Not connected, but a conversation exists (opened by the employer side). */
+        EMPLOYER_INITIATED,
+        /** Neither connected nor in a conversation. */
+        NONE
+    }
+
+    private final BoundedTtlCache<PairKey, PairStatus> statuses;
+
+    public MessageAuthorizationCache(@Value("${messaging.auth-cache.ttl-ms:300000}") long ttlMs,
+                                     @Value("${messaging.auth-cache.max-pairs:50000}") int maxPairs) {
+        this.statuses = new BoundedTtlCache<>(ttlMs, maxPairs);
+    }
+
+    /**
+     * Returns the cached status of the pair, computing it with the loader on a miss.
+     */
+    public PairStatus get(Long userA, Long userB, Supplier<PairStatus> loader) {
+        return statuses.get(PairKey.of(userA, userB), key -> loader.get());
+    }
+
+    /**
+     * Records that a message was sent between the pair, so a NONE entry becomes EMPLOYER_INITIATED.
+     */
+    public void conversationStarted(Long userA, Long userB) {
+        statuses.update(PairKey.of(userA, userB),
+                status -> status == PairStatus.NONE ? PairStatus.EMPLOYER_INITIATED : status);
+    }
+
+    public void evict(Long userA, Long userB) {
+        statuses.invalidate(PairKey.of(userA, userB));
+    }
+
+    private record PairKey(long low, long high) {
+        static PairKey of(Long a, Long b) {
+            return a <= b ? new PairKey(a, b) : new PairKey(b, a);
+        }
+    }
+}
@@ -1,25 +1,43 @@
 package SkillMatch.service;
 
+import SkillMatch.dto.CursorPageDTO;
 import SkillMatch.exception.ResourceNotFoundException;
+import SkillMatch.exception.ValidationException;
+import SkillMatch.model.ConversationSummary;
 import SkillMatch.model.Message;
 import SkillMatch.model.User;
+import SkillMatch.repository.ConversationSummaryRepository;
 import SkillMatch.repository.MessageRepository;
 import SkillMatch.repository.UserRepo;
+import SkillMatch.service.MessageAuthorizationCache.PairStatus;
 import SkillMatch.util.Role;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class MessageService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final MessageRepository messageRepository;
     private final ConnectionService connectionService;
     private final UserRepo userRepo;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MessageAuthorizationCache authorizationCache;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final UnreadCounterService unreadCounterService;
 
+    @Transactional
     public Message sendMessage(User sender, Long recipientId, String content) {
         User recipient = userRepo.findById(recipientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipient not found"));
@@ -29,16 +47,16 @@ public class MessageService {
         // 1. Employers can DM any Candidate (employee)
         if (sender.getRole() == Role.EMPLOYER && recipient.getRole() == Role.CANDIDATE) {
             canSend = true;
-        }
-        // 2. Connected users can message each other
-        else if (connectionService.areConnected(sender, recipient)) {
-            canSend = true;
-        }
-        // 3. Candidates can reply to Employers who have messaged them (or if connected)
-        else if (sender.getRole() == Role.CANDIDATE && recipient.getRole() == Role.EMPLOYER) {
-            // Check if there is already a conversation started by the employer
-            List<Message> history = messageRepository.findConversation(sender, recipient);
-            if (!history.isEmpty()) {
+        } else {
+            PairStatus status = authorizationCache.get(sender.getId(), recipient.getId(),
+                    () -> loadPairStatus(sender.getId(), recipient.getId()));
+            // 2. Connected users can message each other
+            if (status == PairStatus.CONNECTED) {
+                canSend = true;
+            }
+            // 3. Candidates can reply to Employers who have messaged them (or if connected)
+            else if (status == PairStatus.EMPLOYER_INITIATED
+                    && sender.getRole() == Role.CANDIDATE && recipient.getRole() == Role.EMPLOYER) {
                 canSend = true;
             }
         }
@@ -54,24 +72,130 @@ public class MessageService {
                 .build();
 
         Message savedMessage = messageRepository.save(message);
+        recordInSummary(savedMessage, sender.getId(), recipient.getId());
+        unreadCounterService.messagesReceived(recipient.getId(), 1);
 
-        // Notify the recipient in real-time
-        messagingTemplate.convertAndSendToUser(
-                recipient.getEmail(),
-                "/queue/messages",
-                savedMessage
-        );
+        // Only once the message is committed: open the pair in the cache and notify the
+        // recipient in real-time, so a rolled back message is never pushed or authorizes replies
+        afterCommit(() -> {
+            authorizationCache.conversationStarted(sender.getId(), recipient.getId());
+            messagingTemplate.convertAndSendToUser(
+                    recipient.getEmail(),
+                    "/queue/messages",
+                    savedMessage
+            );
+        });
 
         return savedMessage;
     }
 
-    public List<Message> getConversation(User u1, Long u2Id) {
-        User u2 = userRepo.findById(u2Id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return messageRepository.findConversation(u1, u2);
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private PairStatus loadPairStatus(Long senderId, Long recipientId) {
+        if (connectionService.areConnected(senderId, recipientId)) return PairStatus.CONNECTED;
+        return messageRepository.existsConversation(senderId, recipientId) ? PairStatus.EMPLOYER_INITIATED : PairStatus.NONE;
     }
 
+    /**
+     * Returns one page of the conversation in chronological order. Without an anchor the newest
+     * messages are returned; {@code before} pages back into older history and {@code after}
+     * catches up on newer messages. The cursor is the id of the message to continue from.
+     */
+    public CursorPageDTO<Message> getConversation(User u1, Long u2Id, Long before, Long after, int size) {
+        if (before != null && after != null) {
+            throw new ValidationException("Use either before or after, not both");
+        }
+        if (!userRepo.existsById(u2Id)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether another page exists without a count query.
+        int limit = pageSize + 1;
+
+        List<Message> rows;
+        if (after != null) {
+            rows = messageRepository.findConversationAfter(u1.getId(), u2Id, after, limit);
+        } else if (before != null) {
+            rows = messageRepository.findConversationBefore(u1.getId(), u2Id, before, limit);
+        } else {
+            rows = messageRepository.findConversationLatest(u1.getId(), u2Id, limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Message> page = new ArrayList<>(rows.subList(0, Math.min(rows.size(), pageSize)));
+        // Newer-than pages arrive oldest first; older-than pages arrive newest first.
+        if (after == null) Collections.reverse(page);
+
+        String nextCursor = null;
+        if (hasMore) {
+            Message edge = after != null ? page.get(page.size() - 1) : page.get(0);
+            nextCursor = String.valueOf(edge.getId());
+        }
+        return new CursorPageDTO<>(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Marks every message the other user sent to the reader as read and clears the reader's
+     * unread count in the conversation summary.
+     */
+    @Transactional
+    public int markConversationRead(User reader, Long otherUserId) {
+        int updated = messageRepository.markReadFromSender(otherUserId, reader.getId());
+        conversationSummaryRepository.clearUnread(Math.min(reader.getId(), otherUserId),
+                Math.max(reader.getId(), otherUserId), reader.getId());
+        unreadCounterService.messagesRead(reader.getId(), updated);
+        return updated;
+    }
+
+    /**
+     * Marks every message sent to the reader as read with one bulk update.
+     */
+    @Transactional
+    public int markAllRead(User reader) {
+        int updated = messageRepository.markAllReadForRecipient(reader.getId());
+        conversationSummaryRepository.clearAllUnread(reader.getId());
+        unreadCounterService.allMessagesRead(reader.getId());
+        return updated;
+    }
+
+    /**
+     * Latest message of each conversation, most recently active first, read from the
+     * conversation summary instead of aggregating the messages table.
+     */
     public List<Message> getRecentConversations(User user) {
-        return messageRepository.findRecentConversations(user);
+        List<Long> ids = conversationSummaryRepository.findInboxMessageIds(user.getId());
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<Long, Message> byId = new HashMap<>(ids.size() * 2);
+        for (Message message : messageRepository.findAllById(ids)) {
+            byId.put(message.getId(), message);
+        }
+        List<Message> inbox = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Message message = byId.get(id);
+            if (message != null) inbox.add(message);
+        }
+        return inbox;
+    }
+
+    private void recordInSummary(Message message, Long senderId, Long recipientId) {
+        long low = Math.min(senderId, recipientId);
+        long high = Math.max(senderId, recipientId);
+        String content = message.getContent();
+        String snippet = content != null && content.length() > ConversationSummary.SNIPPET_LENGTH
+                ? content.substring(0, ConversationSummary.SNIPPET_LENGTH)
+                : content;
+        conversationSummaryRepository.recordMessage(low, high, message.getId(), senderId, snippet,
+                recipientId == low ? 1 : 0, recipientId == high ? 1 : 0, message.getSentAt());
     }
 }
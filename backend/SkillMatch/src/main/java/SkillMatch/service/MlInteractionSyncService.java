@@ -0,0 +1,275 @@
+package SkillMatch.service;
+
+import SkillMatch.model.InteractionOutbox;
+import SkillMatch.model.JobPost;
+import SkillMatch.model.Skill;
+import SkillMatch.model.User;
+import SkillMatch.repository.InteractionOutboxRepository;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.repository.UserRepo;
+import SkillMatch.util.ProfileNarratives;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers user interactions to the ML engine off the request thread.
+ * Every interaction is first written to the interaction_outbox table and offered to a
+ * bounded in-memory buffer; a scheduled dispatcher drains the buffer (falling back to the
+ * table for anything that overflowed or failed), coalesces duplicates and POSTs them in
+ * batches. Failed batches are retried with exponential backoff until max-attempts.
+ */
+@Service
+@Slf4j
+public class MlInteractionSyncService {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    /** How long to stay on the per-event endpoint before probing the batch endpoint again. */
+    private static final long BATCH_REPROBE_NANOS = Duration.ofHours(1).toNanos();
+
+    private final InteractionOutboxRepository outboxRepository;
+    private final UserRepo userRepo;
+    private final JobPostRepo jobPostRepo;
+    private final RestTemplate restTemplate;
+
+    @Value("${ml.engine.url}")
+    private String mlEngineUrl;
+
+    @Value("${ml.engine.interaction-batch-path:/track/interactions/batch}")
+    private String batchPath;
+
+    @Value("${ml.engine.interaction-path:/track/interaction}")
+    private String eventPath;
+
+    @Value("${ml.sync.batch-size:50}")
+    private int batchSize;
+
+    @Value("${ml.sync.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${ml.sync.base-backoff-ms:5000}")
+    private long baseBackoffMs;
+
+    @Value("${ml.sync.max-backoff-ms:900000}")
+    private long maxBackoffMs;
+
+    @Value("${ml.sync.claim-grace-ms:60000}")
+    private long claimGraceMs;
+
+    private final BlockingQueue<InteractionOutbox> buffer;
+    private volatile long batchEndpointMissingSince;
+    private volatile boolean batchEndpointMissing;
+
+    public MlInteractionSyncService(InteractionOutboxRepository outboxRepository,
+                                    UserRepo userRepo,
+                                    JobPostRepo jobPostRepo,
+                                    RestTemplateBuilder restTemplateBuilder,
+                                    @Value("${ml.sync.buffer-capacity:1000}") int bufferCapacity) {
+        this.outboxRepository = outboxRepository;
+        this.userRepo = userRepo;
+        this.jobPostRepo = jobPostRepo;
+        // Dedicated client so a slow engine cannot tie up the shared RestTemplate indefinitely.
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(CONNECT_TIMEOUT)
+                .readTimeout(READ_TIMEOUT)
+                .build();
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    /**
+     * Persists the interaction to the outbox and hands it to the dispatcher. Never calls the engine.
+     * Rows are claimed for claim-grace-ms so the table poll does not pick up what is still buffered;
+     * if the buffer is full the row simply waits for the next poll after the grace period.
+     */
+    public void enqueue(Long userId, Long jobId, String type) {
+        try {
+            InteractionOutbox entry = outboxRepository.save(InteractionOutbox.builder()
+                    .userId(userId)
+                    .jobId(jobId)
+                    .interactionType(type)
+                    .attempts(0)
+                    .nextAttemptAt(LocalDateTime.now().plusNanos(claimGraceMs * 1_000_000L))
+                    .build());
+            if (!buffer.offer(entry)) {
+                log.debug("ML sync buffer full; interaction {} will be picked up from the outbox", entry.getId());
+            }
+        } catch (Exception e) {
+            log.warn("Could not queue interaction for ML sync: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ml.sync.interval-ms:2000}", fixedDelayString = "${ml.sync.interval-ms:2000}")
+    public void dispatch() {
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            List<InteractionOutbox> batch = nextBatch();
+            if (batch.isEmpty() || !send(batch)) return;
+        }
+    }
+
+    int bufferedCount() {
+        return buffer.size();
+    }
+
+    private List<InteractionOutbox> nextBatch() {
+        List<InteractionOutbox> batch = new ArrayList<>(batchSize);
+        buffer.drainTo(batch, batchSize);
+        if (batch.size() < batchSize) {
+            Set<Long> taken = batch.stream().map(InteractionOutbox::getId).collect(Collectors.toSet());
+            List<InteractionOutbox> ready = outboxRepository.findReady(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (InteractionOutbox entry : ready) {
+                if (batch.size() >= batchSize) break;
+                if (taken.add(entry.getId())) batch.add(entry);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Delivers the batch to the batch endpoint. Engines that do not expose it yet (404/405) get
+     * one request per event on the single-interaction endpoint instead, re-probed hourly.
+     */
+    private boolean send(List<InteractionOutbox> batch) {
+        if (!batchEndpointMissing || System.nanoTime() - batchEndpointMissingSince > BATCH_REPROBE_NANOS) {
+            try {
+                restTemplate.postForObject(mlEngineUrl + batchPath, buildPayload(batch), Map.class);
+                batchEndpointMissing = false;
+                outboxRepository.deleteByIdIn(batch.stream().map(InteractionOutbox::getId).collect(Collectors.toList()));
+                return true;
+            } catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed e) {
+                if (!batchEndpointMissing) {
+                    log.warn("ML engine has no {} endpoint; sending interactions one by one to {}", batchPath, eventPath);
+                }
+                batchEndpointMissing = true;
+                batchEndpointMissingSince = System.nanoTime();
+            } catch (Exception e) {
+                fail(batch, e);
+                return false;
+            }
+        }
+        return sendEach(batch);
+    }
+
+    private boolean sendEach(List<InteractionOutbox> batch) {
+        Map<Long, User> users = userRepo.findAllById(batch.stream().map(InteractionOutbox::getUserId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(User::getId, u -> u));
+        Map<Long, JobPost> jobs = jobPostRepo.findAllById(batch.stream().map(InteractionOutbox::getJobId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(JobPost::getId, j -> j));
+        List<Long> done = new ArrayList<>();
+        try {
+            for (InteractionOutbox entry : batch) {
+                User user = users.get(entry.getUserId());
+                JobPost job = jobs.get(entry.getJobId());
+                // Events for deleted users or jobs cannot be described to the engine; drop them
+                if (user != null && job != null) {
+                    Map<String, Object> event = new HashMap<>();
+                    event.put("user_id", entry.getUserId());
+                    event.put("job_id", entry.getJobId());
+                    event.put("type", entry.getInteractionType());
+                    event.put("user_data", userData(user));
+                    event.put("job_data", jobData(job));
+                    restTemplate.postForObject(mlEngineUrl + eventPath, event, Map.class);
+                }
+                done.add(entry.getId());
+            }
+            return true;
+        } catch (Exception e) {
+            fail(batch.subList(done.size(), batch.size()), e);
+            return false;
+        } finally {
+            if (!done.isEmpty()) outboxRepository.deleteByIdIn(done);
+        }
+    }
+
+    private void fail(List<InteractionOutbox> batch, Exception e) {
+        List<Long> ids = batch.stream().map(InteractionOutbox::getId).collect(Collectors.toList());
+        int attempts = batch.stream().mapToInt(InteractionOutbox::getAttempts).max().orElse(0) + 1;
+        LocalDateTime retryAt = LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000L);
+        outboxRepository.markFailed(ids, retryAt);
+        int dropped = outboxRepository.deleteExhausted(maxAttempts);
+        log.warn("ML interaction sync failed for {} events (attempt {}), retrying at {}: {}",
+                batch.size(), attempts, retryAt, e.getMessage());
+        if (dropped > 0) {
+            log.warn("Dropped {} interactions after {} failed attempts", dropped, maxAttempts);
+        }
+    }
+
+    long backoffMs(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(maxBackoffMs, baseBackoffMs << shift);
+    }
+
+    /**
+     * Coalesces identical (user, job, type) events into one entry with a count and builds the
+     * user/job feature maps once per distinct id.
+     */
+    private Map<String, Object> buildPayload(List<InteractionOutbox> batch) {
+        Map<String, Map<String, Object>> coalesced = new LinkedHashMap<>();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> jobIds = new HashSet<>();
+        for (InteractionOutbox entry : batch) {
+            userIds.add(entry.getUserId());
+            jobIds.add(entry.getJobId());
+            String key = entry.getUserId() + ":" + entry.getJobId() + ":" + entry.getInteractionType();
+            coalesced.computeIfAbsent(key, k -> {
+                Map<String, Object> event = new HashMap<>();
+                event.put("user_id", entry.getUserId());
+                event.put("job_id", entry.getJobId());
+                event.put("type", entry.getInteractionType());
+                event.put("count", 0);
+                return event;
+            }).merge("count", 1, (a, b) -> (Integer) a + (Integer) b);
+        }
+
+        Map<String, Object> users = new HashMap<>();
+        for (User user : userRepo.findAllById(userIds)) {
+            users.put(String.valueOf(user.getId()), userData(user));
+        }
+        Map<String, Object> jobs = new HashMap<>();
+        for (JobPost job : jobPostRepo.findAllById(jobIds)) {
+            jobs.put(String.valueOf(job.getId()), jobData(job));
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("interactions", new ArrayList<>(coalesced.values()));
+        payload.put("users", users);
+        payload.put("jobs", jobs);
+        return payload;
+    }
+
+    private Map<String, Object> userData(User user) {
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("bio", ProfileNarratives.userNarrative(user));
+        userData.put("skills", user.getSkills() != null ?
+                user.getSkills().stream().map(Skill::getTitle).collect(Collectors.toList()) :
+                Collections.emptyList());
+        userData.put("experience_years", ProfileNarratives.experienceYears(user));
+        userData.put("location", user.getLocation());
+        return userData;
+    }
+
+    private Map<String, Object> jobData(JobPost job) {
+        Map<String, Object> jobData = new HashMap<>();
+        jobData.put("description", ProfileNarratives.jobNarrative(job));
+        jobData.put("skills", job.getRequiredSkills() != null ?
+                job.getRequiredSkills().stream().map(Skill::getTitle).collect(Collectors.toList()) :
+                Collections.emptyList());
+        jobData.put("required_experience", 2.0); // Simplified
+        jobData.put("location", job.getLocationType());
+        jobData.put("postedAt", ProfileNarratives.postedAgo(job.getPostedAt()));
+        return jobData;
+    }
+}
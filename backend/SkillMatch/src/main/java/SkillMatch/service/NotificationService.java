@@ -1,5 +1,6 @@
 package SkillMatch.service;
 
+import SkillMatch.dto.UnreadCountsDTO;
 import SkillMatch.model.Notification;
 import SkillMatch.model.User;
 import SkillMatch.repository.NotificationRepository;
@@ -7,6 +8,7 @@ import SkillMatch.repository.UserRepo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,28 +22,61 @@ public class NotificationService {
 
     private final UserRepo userRepository;
 
+    private final UnreadCounterService unreadCounterService;
+
     public List<Notification> getUserNotifications(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         return notificationRepository.findByUserOrderByCreatedAtDesc(user);
     }
 
+    /**
+     * Stores a new unread notification for the user and bumps their unread counter.
+     */
+    @Transactional
+    public Notification createNotification(User user, String title, String message, String type) {
+        Notification notification = notificationRepository.save(Notification.builder()
+                .user(user)
+                .title(title)
+                .message(message)
+                .type(type)
+                .build());
+        unreadCounterService.notificationsReceived(user.getId(), 1);
+        return notification;
+    }
+
+    @Transactional
     public Notification markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
+        // Conditional update so a repeated or concurrent read only decrements the counter once.
+        if (notificationRepository.markRead(notificationId) > 0) {
+            unreadCounterService.notificationsRead(notification.getUser().getId(), 1);
+        }
         notification.setRead(true);
-        return notificationRepository.save(notification);
+        return notification;
     }
 
+    @Transactional
     public void markAllAsRead(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        List<Notification> notifications = notificationRepository.findByUserOrderByCreatedAtDesc(user);
-        notifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(notifications);
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        notificationRepository.markAllReadForUser(userId);
+        unreadCounterService.allNotificationsRead(userId);
+    }
+
+    public UnreadCountsDTO getUnreadCounts(Long userId) {
+        return unreadCounterService.getCounts(userId);
     }
 
+    @Transactional
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            notificationRepository.delete(notification);
+            if (!notification.isRead()) {
+                unreadCounterService.notificationsRead(notification.getUser().getId(), 1);
+            }
+        });
     }
 }
@@ -0,0 +1,168 @@
+package SkillMatch.service;
+
+import SkillMatch.util.TokenHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * On-disk cache of scraped pages keyed by URL: the body plus its ETag, Last-Modified and content
+ * hash, so the fetcher can revalidate with a conditional GET. Also remembers the content hash of
+ * each listing page as of the last completed sync, which lets the pipeline skip a source whose
+ * listing has not changed. Files are written atomically and pruned after a maximum age.
+ */
+@Service
+@Slf4j
+public class PageCache {
+
+    private final Path dir;
+    private final boolean enabled;
+    private final Duration maxAge;
+
+    public PageCache(@Value("${external-jobs.page-cache.dir:${java.io.tmpdir}/skillmatch-page-cache}") String dir,
+                     @Value("${external-jobs.page-cache.enabled:true}") boolean enabled,
+                     @Value("${external-jobs.page-cache.max-age-days:30}") int maxAgeDays) {
+        this.dir = Path.of(dir);
+        this.maxAge = Duration.ofDays(maxAgeDays);
+        boolean usable = enabled;
+        if (enabled) {
+            try {
+                Files.createDirectories(this.dir);
+            } catch (IOException e) {
+                log.warn("Page cache disabled, cannot create {}: {}", dir, e.getMessage());
+                usable = false;
+            }
+        }
+        this.enabled = usable;
+    }
+
+    /**
+     * Cached copy of the page, or null if there is none.
+     */
+    public synchronized Entry get(String url) {
+        if (!enabled) return null;
+        Properties meta = readMeta(url);
+        Path body = bodyPath(url);
+        if (meta == null || !Files.exists(body)) return null;
+        try {
+            return new Entry(meta.getProperty("etag"), meta.getProperty("lastModified"),
+                    meta.getProperty("contentHash"), Files.readString(body, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("Unreadable page cache entry for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    public synchronized void put(String url, Entry entry) {
+        if (!enabled) return;
+        Properties meta = readMeta(url);
+        if (meta == null) meta = new Properties();
+        meta.setProperty("url", url);
+        setOrRemove(meta, "etag", entry.etag());
+        setOrRemove(meta, "lastModified", entry.lastModified());
+        setOrRemove(meta, "contentHash", entry.contentHash());
+        try {
+            writeAtomically(bodyPath(url), entry.body());
+            writeMeta(url, meta);
+        } catch (IOException e) {
+            log.warn("Could not cache page {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Content hash of the listing page when its source last synced completely.
+     */
+    public synchronized String syncedHash(String url) {
+        if (!enabled) return null;
+        Properties meta = readMeta(url);
+        return meta != null ? meta.getProperty("syncedHash") : null;
+    }
+
+    public synchronized void markSynced(String url, String contentHash) {
+        if (!enabled || contentHash == null) return;
+        Properties meta = readMeta(url);
+        if (meta == null) meta = new Properties();
+        meta.setProperty("url", url);
+        meta.setProperty("syncedHash", contentHash);
+        try {
+            writeMeta(url, meta);
+        } catch (IOException e) {
+            log.warn("Could not record synced listing {}: {}", url, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public synchronized void prune() {
+        if (!enabled) return;
+        FileTime cutoff = FileTime.from(Instant.now().minus(maxAge));
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) removed++;
+            }
+        } catch (IOException e) {
+            log.warn("Page cache prune failed: {}", e.getMessage());
+        }
+        if (removed > 0) log.info("Pruned {} page cache files older than {} days", removed, maxAge.toDays());
+    }
+
+    private Properties readMeta(String url) {
+        Path path = metaPath(url);
+        if (!Files.exists(path)) return null;
+        Properties meta = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            meta.load(reader);
+            return meta;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeMeta(String url, Properties meta) throws IOException {
+        Path tmp = Files.createTempFile(dir, "meta", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            meta.store(writer, null);
+        }
+        Files.move(tmp, metaPath(url), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeAtomically(Path target, String content) throws IOException {
+        Path tmp = Files.createTempFile(dir, "page", ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path metaPath(String url) {
+        return dir.resolve(key(url) + ".meta");
+    }
+
+    private Path bodyPath(String url) {
+        return dir.resolve(key(url) + ".html");
+    }
+
+    private static String key(String url) {
+        return TokenHash.hex(TokenHash.sha256(url));
+    }
+
+    private static void setOrRemove(Properties meta, String name, String value) {
+        if (value != null) meta.setProperty(name, value);
+        else meta.remove(name);
+    }
+
+    public record Entry(String etag, String lastModified, String contentHash, String body) {
+    }
+}
@@ -0,0 +1,103 @@
+package SkillMatch.service;
+
+import SkillMatch.util.TopKSelector;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs top-K scoring passes over large pools on a dedicated ForkJoinPool. The pool is split
+ * into chunks that each fill their own {@link TopKSelector}; the partial selections are merged
+ * as the tasks join. Pools below the parallel threshold are scored on the calling thread.
+ * Parallelism is capped by configuration so scoring cannot starve the web tier. Used for
+ * candidate ranking over {@link CandidateFeatureStore}, whose scorer reads only primitive arrays;
+ * job recommendation pools are capped at a few hundred jobs and are scored inline.
+ */
+@Service
+@Slf4j
+public class ParallelScoringEngine {
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int threshold;
+    private final int chunkSize;
+
+    public ParallelScoringEngine(@Value("${recommendation.scoring.parallelism:0}") int configuredParallelism,
+                                 @Value("${recommendation.scoring.parallel-threshold:20000}") int threshold,
+                                 @Value("${recommendation.scoring.chunk-size:4096}") int chunkSize) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.parallelism = configuredParallelism > 0
+                ? Math.min(configuredParallelism, cores)
+                : Math.max(1, cores / 2);
+        this.threshold = Math.max(1, threshold);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        log.info("Scoring engine: parallelism={}, threshold={}, chunkSize={}", parallelism, this.threshold, this.chunkSize);
+    }
+
+    /**
+     * Scores items [0, size) through the scorer and returns the best k.
+     */
+    public TopKSelector topK(int size, int k, ChunkScorer scorer) {
+        if (pool == null || size < threshold) {
+            TopKSelector top = new TopKSelector(k);
+            scorer.score(0, size, top);
+            return top;
+        }
+        return pool.invoke(new ScoreTask(scorer, 0, size, k, chunkSize));
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    /**
+     * Scores the half-open index range [from, to) into the given selector.
+     * Must be safe to call concurrently for disjoint ranges.
+     */
+    @FunctionalInterface
+    public interface ChunkScorer {
+        void score(int from, int to, TopKSelector top);
+    }
+
+    private static final class ScoreTask extends RecursiveTask<TopKSelector> {
+        private final ChunkScorer scorer;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final int chunkSize;
+
+        ScoreTask(ChunkScorer scorer, int from, int to, int k, int chunkSize) {
+            this.scorer = scorer;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected TopKSelector compute() {
+            if (to - from <= chunkSize) {
+                TopKSelector top = new TopKSelector(k);
+                scorer.score(from, to, top);
+                return top;
+            }
+            int mid = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(scorer, from, mid, k, chunkSize);
+            ScoreTask right = new ScoreTask(scorer, mid, to, k, chunkSize);
+            left.fork();
+            TopKSelector merged = right.compute();
+            merged.offerAll(left.join());
+            return merged;
+        }
+    }
+}
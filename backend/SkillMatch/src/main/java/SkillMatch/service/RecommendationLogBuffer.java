@@ -0,0 +1,128 @@
+package SkillMatch.service;
+
+import SkillMatch.model.RecommendationLog;
+import SkillMatch.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-behind buffer for recommendation_logs. Callers on any thread (including read-only
+ * transactions) append events to a lock-free ring buffer; a scheduled flusher writes them
+ * with JDBC batch inserts once a batch has accumulated or max-delay has elapsed.
+ * Events offered while the buffer is full are dropped and counted.
+ */
+@Service
+@Slf4j
+public class RecommendationLogBuffer {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO recommendation_logs (user_id, item_id, item_type, event_type, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MpscRingBuffer<RecommendationLog> buffer;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+
+    @Value("${recommendation.log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${recommendation.log.max-delay-ms:2000}")
+    private long maxDelayMs;
+
+    private volatile long lastFlushNanos = System.nanoTime();
+
+    public RecommendationLogBuffer(JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${recommendation.log.buffer-capacity:16384}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.droppedCounter = meterRegistry.counter("recommendation.log.dropped");
+        this.writtenCounter = meterRegistry.counter("recommendation.log.written");
+        this.failedCounter = meterRegistry.counter("recommendation.log.failed");
+        this.lagTimer = Timer.builder("recommendation.log.lag")
+                .description("Age of the oldest event in each flushed batch")
+                .register(meterRegistry);
+        meterRegistry.gauge("recommendation.log.pending", buffer, MpscRingBuffer::size);
+    }
+
+    /**
+     * Queues an event without touching the database. Never blocks.
+     */
+    public void append(Long userId, Long itemId, String itemType, String eventType) {
+        RecommendationLog entry = RecommendationLog.builder()
+                .userId(userId)
+                .itemId(itemId)
+                .itemType(itemType)
+                .eventType(eventType)
+                .timestamp(LocalDateTime.now())
+                .build();
+        if (!buffer.offer(entry)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Polled frequently; only writes when the size or time trigger has fired.
+     */
+    @Scheduled(fixedDelayString = "${recommendation.log.poll-interval-ms:250}")
+    public synchronized void flushIfDue() {
+        int pending = buffer.size();
+        if (pending == 0) {
+            lastFlushNanos = System.nanoTime();
+            return;
+        }
+        boolean sizeDue = pending >= batchSize;
+        boolean timeDue = System.nanoTime() - lastFlushNanos >= maxDelayMs * 1_000_000L;
+        if (sizeDue || timeDue) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void flush() {
+        while (true) {
+            List<RecommendationLog> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+            if (buffer.drainTo(batch, batchSize) == 0) break;
+            write(batch);
+        }
+        lastFlushNanos = System.nanoTime();
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    private void write(List<RecommendationLog> batch) {
+        LocalDateTime oldest = batch.get(0).getTimestamp();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setObject(1, entry.getUserId());
+                ps.setObject(2, entry.getItemId());
+                ps.setString(3, entry.getItemType());
+                ps.setString(4, entry.getEventType());
+                ps.setTimestamp(5, Timestamp.valueOf(entry.getTimestamp()));
+            });
+            writtenCounter.increment(batch.size());
+            lagTimer.record(Duration.between(oldest, LocalDateTime.now()));
+        } catch (Exception e) {
+            // Logging is non-critical; a failed batch is dropped rather than retried indefinitely.
+            failedCounter.increment(batch.size());
+            log.warn("Dropping {} recommendation log events: {}", batch.size(), e.getMessage());
+        }
+    }
+}
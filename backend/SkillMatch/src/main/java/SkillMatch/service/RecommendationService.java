@@ -1,18 +1,22 @@
 package SkillMatch.service;
 
+import SkillMatch.dto.CursorPageDTO;
+import SkillMatch.dto.JobResponseDTO;
 import SkillMatch.model.*;
 import SkillMatch.repository.*;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import SkillMatch.util.JobFeedCursor;
+import SkillMatch.util.ProfileNarratives;
+import SkillMatch.util.SkillIds;
+import SkillMatch.util.SkillDictionary;
+import SkillMatch.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,16 +24,28 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class RecommendationService {
+    private static final int MAX_SCORED_JOBS = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int ML_CANDIDATE_SHORTLIST = 100;
+    /** Share of the 0-100 interest score added to the 0-100 match score (up to 10 points). */
+    private static final double INTEREST_WEIGHT = 0.1;
+
     private final JobPostRepo jobPostRepo;
     private final CandidateJobMatchService candidateJobMatchService;
     private final UserRepo userRepo;
     private final UserInteractionRepository interactionRepo;
-    private final ConnectionService connectionService;
+    private final ConnectionGraph connectionGraph;
     private final org.springframework.web.client.RestTemplate restTemplate;
 
     private final JobRecommendationRepository jobRecommendationRepository;
     private final ConnectionRecommendationRepository connectionRecommendationRepository;
-    private final RecommendationLogRepository recommendationLogRepository;
+    private final RecommendationLogBuffer recommendationLogBuffer;
+    private final JobSkillIndex jobSkillIndex;
+    private final UserClickProfileCache userClickProfileCache;
+    private final JobMaterializer jobMaterializer;
+    private final CandidateFeatureStore candidateFeatureStore;
+    private final SkillDictionary skillDictionary;
+    private final MlInteractionSyncService mlInteractionSyncService;
 
     @Value("${ml.engine.url}")
     private String mlEngineUrl;
@@ -37,93 +53,136 @@ public class RecommendationService {
     /**
      * Recommends JobPosts for a Candidate based on offline precomputed ML scores.
      */
-    public List<JobPost> recommendJobs(User candidate) {
-        List<JobRecommendation> precomputed = jobRecommendationRepository.findByUserIdOrderByRankAsc(candidate.getId());
-        
+    public List<JobResponseDTO> recommendJobs(User candidate) {
+        List<Long> precomputed = jobRecommendationRepository.findJobIdsByUserIdOrderByRankAsc(candidate.getId());
+
         if (!precomputed.isEmpty()) {
             log.info("Returning {} precomputed job recommendations for user {}", precomputed.size(), candidate.getId());
-            List<JobPost> jobs = precomputed.stream()
-                    .map(JobRecommendation::getJob)
-                    .filter(Objects::nonNull)
-                    .map(this::materializeJobForSerialization)
-                    .collect(Collectors.toList());
-            
+            List<JobResponseDTO> jobs = jobMaterializer.materialize(precomputed);
+
+            jobs.forEach(j -> logRecommendationEvent(candidate.getId(), Long.valueOf(j.getId()), "JOB", "SHOWN"));
 
-            jobs.forEach(j -> logRecommendationEvent(candidate.getId(), j.getId(), "JOB", "SHOWN"));
-            
             return jobs;
         }
 
-        List<JobPost> cachedMatches = candidateJobMatchService.getTopJobPosts(candidate, 100);
+        List<Long> cachedMatches = candidateJobMatchService.getTopJobIds(candidate, 100);
         if (!cachedMatches.isEmpty()) {
-            return cachedMatches.stream()
-                    .filter(Objects::nonNull)
-                    .map(this::materializeJobForSerialization)
-                    .collect(Collectors.toList());
+            return jobMaterializer.materialize(cachedMatches);
         }
 
-        List<JobPost> allJobs = jobPostRepo.findAll();
-        if (allJobs.isEmpty()) return Collections.emptyList();
-
         Set<String> candidateSkills = candidate.getSkills().stream()
-                .map(s -> s.getTitle().toLowerCase().trim())
+                .map(s -> SkillDictionary.normalize(s.getTitle()))
                 .collect(Collectors.toSet());
 
-        return allJobs.stream()
-                .sorted(Comparator.comparingDouble((JobPost j) -> calculateJobMatchScore(j, candidateSkills, candidate)).reversed())
-                .limit(20)
-                .collect(Collectors.toList());
+        List<JobPost> pool = loadScoringPool(candidateSkills);
+        if (pool.isEmpty()) return Collections.emptyList();
+
+        int[] candidateSkillIds = skillDictionary.knownIdsOf(candidateSkills);
+        double candidateYears = ProfileNarratives.experienceYears(candidate);
+        String candidateLocation = candidate.getLocation();
+        // One cached profile lookup per request; per-job interest is then a binary search
+        UserClickProfileCache.ClickProfile clicks = userClickProfileCache.get(candidate.getId());
+        // The pool is capped at MAX_SCORED_JOBS, far below where parallel scoring pays off, and
+        // scoring reads lazy employer data, so it stays on the request thread and its session.
+        TopKSelector top = new TopKSelector(20);
+        for (JobPost job : pool) {
+            double score = calculateJobMatchScore(job, candidateSkillIds, candidateLocation, candidateYears)
+                    + INTEREST_WEIGHT * calculateInterestScore(clicks, job.getId());
+            top.offer(job.getId(), score);
+        }
+        return jobMaterializer.materialize(top.idsDescending());
     }
 
-    private JobPost materializeJobForSerialization(JobPost job) {
-        JobPost initialized = (JobPost) Hibernate.unproxy(job);
-        Hibernate.initialize(initialized.getRequirements());
-        if (initialized.getRequirements() != null) {
-            // Replace Hibernate persistent collection with a plain list for safe JSON serialization.
-            initialized.setRequirements(new ArrayList<>(initialized.getRequirements()));
+    /**
+     * Loads the jobs worth scoring for a candidate: those sharing at least one skill according to
+     * the skill index, or the most recent jobs when the candidate has no skill overlap at all.
+     */
+    private List<JobPost> loadScoringPool(Set<String> candidateSkills) {
+        if (jobSkillIndex.isReady()) {
+            long[] ids = jobSkillIndex.findJobsSharingSkills(candidateSkills, MAX_SCORED_JOBS);
+            if (ids.length > 0) {
+                return jobPostRepo.findAllById(Arrays.stream(ids).boxed().collect(Collectors.toList()));
+            }
         }
-        return initialized;
+        return jobPostRepo.findAll(PageRequest.of(0, MAX_SCORED_JOBS, Sort.by(Sort.Direction.DESC, "postedAt")))
+                .getContent();
     }
 
     /**
-     * Recommends all jobs ranked by relevance for the user.
+     * Returns one page of all jobs ranked for the user. Precomputed ranks (or, without them, jobs
+     * sharing the user's skills) come first, followed by every other job newest first via a keyset
+     * scan over (postedAt, id), so each page costs the same regardless of table size.
      */
-    public List<JobPost> recommendAllJobs(User user) {
-        List<JobPost> allJobs = jobPostRepo.findAll();
-        if (allJobs.isEmpty()) return Collections.emptyList();
+    public CursorPageDTO<JobResponseDTO> recommendAllJobs(User user, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        JobFeedCursor position = JobFeedCursor.decode(cursor);
+        long[] rankedIds = loadRankedJobIds(user);
+
+        List<JobResponseDTO> page = new ArrayList<>(pageSize);
+        JobFeedCursor next = null;
+
+        if (position.isRanked()) {
+            int from = Math.min(position.getOffset(), rankedIds.length);
+            int to = Math.min(from + pageSize, rankedIds.length);
+            page.addAll(jobMaterializer.materialize(Arrays.copyOfRange(rankedIds, from, to)));
+            if (to < rankedIds.length) {
+                next = JobFeedCursor.ranked(to);
+            } else {
+                position = JobFeedCursor.keysetStart();
+                if (page.size() >= pageSize) next = position;
+            }
+        }
 
-        List<JobRecommendation> precomputed = jobRecommendationRepository.findByUserIdOrderByRankAsc(user.getId());
-        
-        if (precomputed.isEmpty()) {
-            // Apply skill matching score to all jobs if no precomputed data
-            Set<String> candidateSkills = user.getSkills().stream()
-                    .map(s -> s.getTitle().toLowerCase().trim())
-                    .collect(Collectors.toSet());
-            
-            allJobs.sort(Comparator.comparingDouble((JobPost j) -> calculateJobMatchScore(j, candidateSkills, user)).reversed());
-            return allJobs;
+        if (next == null) {
+            Set<Long> rankedSet = Arrays.stream(rankedIds).boxed().collect(Collectors.toSet());
+            LocalDateTime lastPostedAt = position.getPostedAt();
+            Long lastId = position.getId();
+            boolean exhausted = false;
+
+            List<Long> unrankedIds = new ArrayList<>();
+            while (page.size() + unrankedIds.size() < pageSize && !exhausted) {
+                int want = pageSize - page.size() - unrankedIds.size();
+                PageRequest batchRequest = PageRequest.of(0, want);
+                List<Object[]> batch = lastId == null
+                        ? jobPostRepo.findFeedKeysLatestFirst(batchRequest)
+                        : jobPostRepo.findFeedKeysOlderThan(lastPostedAt, lastId, batchRequest);
+                exhausted = batch.size() < want;
+
+                for (Object[] key : batch) {
+                    lastId = (Long) key[0];
+                    lastPostedAt = (LocalDateTime) key[1];
+                    if (!rankedSet.contains(lastId)) unrankedIds.add(lastId);
+                }
+            }
+            page.addAll(jobMaterializer.materialize(unrankedIds));
+
+            if (!exhausted) {
+                next = lastId == null ? JobFeedCursor.keysetStart() : JobFeedCursor.keyset(lastPostedAt, lastId);
+            }
         }
 
-        Map<Long, Integer> jobRanks = precomputed.stream()
-                .collect(Collectors.toMap(JobRecommendation::getJobId, JobRecommendation::getRank, (a, b) -> a));
+        return CursorPageDTO.<JobResponseDTO>builder()
+                .items(page)
+                .nextCursor(next != null ? next.encode() : null)
+                .hasMore(next != null)
+                .build();
+    }
 
-        allJobs.sort((a, b) -> {
-            Integer rankA = jobRanks.getOrDefault(a.getId(), Integer.MAX_VALUE);
-            Integer rankB = jobRanks.getOrDefault(b.getId(), Integer.MAX_VALUE);
-            
-            if (!rankA.equals(rankB)) return rankA - rankB;
-            
-            // For unranked jobs or same rank, newest first
-            LocalDateTime dateA = a.getPostedAt() != null ? a.getPostedAt() : LocalDateTime.MIN;
-            LocalDateTime dateB = b.getPostedAt() != null ? b.getPostedAt() : LocalDateTime.MIN;
-            return dateB.compareTo(dateA);
-        });
+    private long[] loadRankedJobIds(User user) {
+        List<Long> precomputed = jobRecommendationRepository.findJobIdsByUserIdOrderByRankAsc(user.getId());
+        if (!precomputed.isEmpty()) {
+            return precomputed.stream().distinct().mapToLong(Long::longValue).toArray();
+        }
+        if (!jobSkillIndex.isReady()) return new long[0];
 
-        return allJobs;
+        Set<String> candidateSkills = user.getSkills().stream()
+                .map(s -> SkillDictionary.normalize(s.getTitle()))
+                .collect(Collectors.toSet());
+        return jobSkillIndex.findJobsSharingSkills(candidateSkills, MAX_SCORED_JOBS);
     }
 
     /**
-     * Records a user interaction and skips ML sync if engine is down.
+     * Records a user interaction and queues it for the ML engine through the outbox.
      */
     public void recordInteraction(User user, JobPost job, String type) {
         UserInteraction interaction = UserInteraction.builder()
@@ -132,110 +191,24 @@ public class RecommendationService {
                 .interactionType(type)
                 .build();
         interactionRepo.save(interaction);
+        if ("CLICK".equals(type)) {
+            userClickProfileCache.invalidate(user.getId());
+        }
 
         // Also log as recommendation event for training labels
         logRecommendationEvent(user.getId(), job.getId(), "JOB", type);
 
-        // Feedback loop to ML engine with full context for feature extraction
-        try {
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("bio", buildUserProfileString(user));
-            userData.put("skills", user.getSkills().stream().map(Skill::getTitle).collect(Collectors.toList()));
-            userData.put("experience_years", calculateTotalExperience(user));
-            userData.put("location", user.getLocation());
-
-            Map<String, Object> jobData = new HashMap<>();
-            jobData.put("description", buildJobNarrative(job));
-            jobData.put("skills", job.getRequiredSkills() != null ? 
-                    job.getRequiredSkills().stream().map(Skill::getTitle).collect(Collectors.toList()) : 
-                    Collections.emptyList());
-            jobData.put("required_experience", 2.0); // Simplified
-            jobData.put("location", job.getLocationType());
-            jobData.put("postedAt", calculatePostedAgo(job.getPostedAt()));
-
-            Map<String, Object> req = new HashMap<>();
-            req.put("user_id", user.getId());
-            req.put("job_id", job.getId());
-            req.put("type", type);
-            req.put("user_data", userData);
-            req.put("job_data", jobData);
-            
-            restTemplate.postForObject(mlEngineUrl + "/track/interaction", req, Map.class);
-        } catch (Exception e) {
-            log.warn("Could not sync interaction to ML engine: {}", e.getMessage());
-        }
-    }
-
-    private String calculatePostedAgo(java.time.LocalDateTime postedAt) {
-        if (postedAt == null) return "1d";
-        long hours = ChronoUnit.HOURS.between(postedAt, java.time.LocalDateTime.now());
-        if (hours < 24) return hours + "h";
-        return (hours / 24) + "d";
-    }
-
-    private String buildUserNarrative(User user) {
-        StringBuilder narrative = new StringBuilder();
-        String latestTitle = (user.getProfession() == null || user.getProfession().isBlank()) ? "Professional" : user.getProfession();
-        double years = calculateTotalExperience(user);
-
-        narrative.append(latestTitle)
-                .append(" with ")
-                .append(String.format("%.1f", years))
-                .append(" years of experience. ");
-
-        if (user.getSkills() != null && !user.getSkills().isEmpty()) {
-            narrative.append("Skilled in: ")
-                    .append(user.getSkills().stream().map(Skill::getTitle).collect(Collectors.joining(", ")))
-                    .append(". ");
-        }
-
-        return narrative.toString();
+        // Feedback loop to ML engine; delivered in batches off the request thread
+        mlInteractionSyncService.enqueue(user.getId(), job.getId(), type);
     }
 
     /**
      * Logs recommendation events (SHOWN, CLICKED, etc.) for offline training pipelines.
+     * Events are buffered and batch-inserted in the background, so this is safe to call from
+     * read-only transactions and costs no database round trip per item.
      */
     public void logRecommendationEvent(Long userId, Long itemId, String itemType, String eventType) {
-        // Recommendation fetch endpoints run in read-only transactions; skip write-side logging there.
-        if (TransactionSynchronizationManager.isActualTransactionActive()
-                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
-            return;
-        }
-
-        RecommendationLog logEntry = RecommendationLog.builder()
-                .userId(userId)
-                .itemId(itemId)
-                .itemType(itemType)
-                .eventType(eventType)
-                .build();
-        try {
-            recommendationLogRepository.save(logEntry);
-        } catch (Exception e) {
-            // Logging is non-critical; do not fail recommendation delivery if tracking write fails.
-            log.warn("Skipping recommendation log write: {}", e.getMessage());
-        }
-    }
-
-    private String buildUserProfileString(User user) {
-        return buildUserNarrative(user);
-    }
-
-    private String buildJobNarrative(JobPost job) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(job.getTitle()).append(". ");
-        sb.append(job.getDescription()).append(". ");
-        if (job.getRequiredSkills() != null && !job.getRequiredSkills().isEmpty()) {
-            sb.append("Required skills: ")
-                    .append(job.getRequiredSkills().stream().map(Skill::getTitle).collect(Collectors.joining(", ")));
-        }
-        return sb.toString();
-    }
-
-    private double calculateSkillOverlap(Set<String> candidateSkills, List<Skill> jobSkills) {
-        if (jobSkills == null || jobSkills.isEmpty()) return 50.0;
-        Set<String> required = jobSkills.stream().map(s -> s.getTitle().toLowerCase().trim()).collect(Collectors.toSet());
-        long matches = required.stream().filter(candidateSkills::contains).count();
-        return (double) matches / required.size() * 100.0;
+        recommendationLogBuffer.append(userId, itemId, itemType, eventType);
     }
 
     private double calculateExperienceFit(double candidateYears, String jobTitle) {
@@ -259,30 +232,37 @@ public class RecommendationService {
         return 10.0;
     }
 
-    private double calculateInterestScore(User user, JobPost job) {
-        long clicks = interactionRepo.countByUserAndJobPostAndInteractionType(user, job, "CLICK");
+    private double calculateInterestScore(UserClickProfileCache.ClickProfile profile, long jobId) {
+        int clicks = profile.clicks(jobId);
         if (clicks > 3) return 100.0;
         if (clicks > 0) return 50.0;
         return 0.0;
     }
 
     /**
-     * Recommends Candidates for an Employer/JobPost.
+     * Recommends Candidates for an Employer/JobPost. Every candidate is ranked from the feature
+     * store; the best ML_CANDIDATE_SHORTLIST of them are re-ranked with semantic scores when the ML engine
+     * is reachable.
      */
     public List<User> recommendCandidates(JobPost job) {
-        List<User> allCandidates = userRepo.findAll().stream()
-                .filter(u -> u.getRole() != null && (u.getRole().name().equals("CANDIDATE") || u.getRole().name().equals("USER")))
-                .limit(100) // Limit candidates for ML processing
-                .collect(Collectors.toList());
+        List<String> requiredTitles = job.getRequiredSkills() == null ? Collections.emptyList()
+                : job.getRequiredSkills().stream().map(Skill::getTitle).collect(Collectors.toList());
+        CandidateFeatureStore.JobProfile profile = candidateFeatureStore.profileFor(requiredTitles, job.getTitle());
+
+        TopKSelector shortlist = candidateFeatureStore.rankForJob(profile, ML_CANDIDATE_SHORTLIST, Double.NEGATIVE_INFINITY);
+        long[] shortlistIds = shortlist.idsDescending();
+        if (shortlistIds.length == 0) return Collections.emptyList();
+        Map<Long, User> usersById = userRepo.findAllById(Arrays.stream(shortlistIds).boxed().collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
 
         Map<Long, Double> semanticScores = new HashMap<>();
         boolean mlSuccess = false;
         try {
-            String jobNarrative = buildJobNarrative(job);
-            List<Map<String, Object>> candData = allCandidates.stream().map(u -> {
+            String jobNarrative = ProfileNarratives.jobNarrative(job);
+            List<Map<String, Object>> candData = usersById.values().stream().map(u -> {
                 Map<String, Object> map = new HashMap<>();
                 map.put("id", u.getId());
-                map.put("profile", buildUserNarrative(u));
+                map.put("profile", ProfileNarratives.userNarrative(u));
                 return map;
             }).collect(Collectors.toList());
 
@@ -299,32 +279,30 @@ public class RecommendationService {
             log.error("ML Engine unavailable for candidates: {}", e.getMessage());
         }
 
-        Set<String> requiredSkills = job.getRequiredSkills().stream()
-                .map(s -> s.getTitle().toLowerCase().trim())
-                .collect(Collectors.toSet());
-
-        final boolean finalMlSuccess = mlSuccess;
-        return allCandidates.stream()
-                .map(candidate -> {
-                    double finalScore;
-                    if (finalMlSuccess) {
-                        double semantic = semanticScores.getOrDefault(candidate.getId(), 0.0);
-                        double skillMatch = calculateSkillOverlap(
-                                candidate.getSkills().stream().map(s -> s.getTitle().toLowerCase().trim()).collect(Collectors.toSet()),
-                                job.getRequiredSkills()
-                        );
-                        double expFit = calculateExperienceFit(calculateTotalExperience(candidate), job.getTitle());
-
-                        finalScore = (0.5 * semantic) + (0.3 * (skillMatch / 100.0)) + (0.2 * (expFit / 100.0));
-                    } else {
-                        finalScore = calculateCandidateMatchScore(candidate, requiredSkills, job) / 100.0;
-                    }
-                    return new UserMatch(candidate, finalScore * 100.0);
-                })
-                .filter(um -> um.getScore() > 10)
-                .sorted(Comparator.comparingDouble(UserMatch::getScore).reversed())
-                .map(UserMatch::getUser)
-                .limit(15)
+        TopKSelector top = new TopKSelector(15);
+        double[] featureScores = shortlist.scoresDescending();
+        for (int i = 0; i < shortlistIds.length; i++) {
+            long candidateId = shortlistIds[i];
+            if (!usersById.containsKey(candidateId)) continue;
+            double finalScore;
+            if (mlSuccess) {
+                CandidateFeatureStore.Features features = candidateFeatureStore.featuresOf(candidateId, profile);
+                if (features == null) continue;
+                double semantic = semanticScores.getOrDefault(candidateId, 0.0);
+                double skillMatch = profile.getRequiredCount() == 0 ? 50.0
+                        : (double) features.getSharedSkills() / profile.getRequiredCount() * 100.0;
+                double expFit = calculateExperienceFit(features.getExperienceYears(), job.getTitle());
+
+                finalScore = (0.5 * semantic) + (0.3 * (skillMatch / 100.0)) + (0.2 * (expFit / 100.0));
+            } else {
+                finalScore = featureScores[i] / 100.0;
+            }
+            if (finalScore * 100.0 > 10) {
+                top.offer(candidateId, finalScore);
+            }
+        }
+        return Arrays.stream(top.idsDescending())
+                .mapToObj(usersById::get)
                 .collect(Collectors.toList());
     }
 
@@ -349,21 +327,16 @@ public class RecommendationService {
         }
 
         // 2. Fallback to basic mutual connection / skill logic (fallback)
-        List<User> myConnections = connectionService.getConnections(user);
-        Set<Long> myConnIds = myConnections.stream().map(User::getId).collect(Collectors.toSet());
+        Set<Long> myConnIds = new HashSet<>();
+        for (long id : connectionGraph.connectionsOf(user.getId())) myConnIds.add(id);
         myConnIds.add(user.getId());
 
-        Map<User, Double> scores = new HashMap<>();
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, User> usersById = new HashMap<>();
 
-        // Mutual Connections (Weight: 5.0 per mutual)
-        for (User friend : myConnections) {
-            List<User> friendsOfFriend = connectionService.getConnections(friend);
-            for (User potential : friendsOfFriend) {
-                if (!myConnIds.contains(potential.getId())) {
-                    scores.put(potential, scores.getOrDefault(potential, 0.0) + 5.0);
-                }
-            }
-        }
+        // Mutual Connections (Weight: 5.0 per mutual), counted from the resident graph
+        connectionGraph.mutualCounts(user.getId())
+                .forEach((candidateId, mutual) -> scores.put(candidateId, mutual * 5.0));
 
         List<User> others = userRepo.findAll().stream()
                 .filter(u -> !myConnIds.contains(u.getId()))
@@ -371,7 +344,7 @@ public class RecommendationService {
                 .collect(Collectors.toList());
 
         for (User potential : others) {
-            double score = scores.getOrDefault(potential, 0.0);
+            double score = scores.getOrDefault(potential.getId(), 0.0);
             
             // Basic shared skills fallback
             long sharedSkills = potential.getSkills().stream()
@@ -380,30 +353,45 @@ public class RecommendationService {
             score += sharedSkills * 3.0;
 
             if (score > 0) {
-                scores.put(potential, score);
+                scores.put(potential.getId(), score);
+                usersById.putIfAbsent(potential.getId(), potential);
             }
         }
 
-        return scores.entrySet().stream()
-                .sorted(Map.Entry.<User, Double>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .limit(15)
+        TopKSelector top = new TopKSelector(15);
+        scores.forEach(top::offer);
+        long[] topIds = top.idsDescending();
+
+        // Only the final picks reached through the graph still need their User rows.
+        List<Long> missing = Arrays.stream(topIds).filter(id -> !usersById.containsKey(id)).boxed().toList();
+        if (!missing.isEmpty()) {
+            userRepo.findAllById(missing).forEach(u -> usersById.put(u.getId(), u));
+        }
+        return Arrays.stream(topIds)
+                .mapToObj(usersById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
-    private double calculateJobMatchScore(JobPost job, Set<String> candidateSkills, User candidate) {
+    private double calculateJobMatchScore(JobPost job, int[] candidateSkillIds, String userLoc, double totalYears) {
         double score = 0;
 
-        // Skill Matching (Max 60 points)
-        if (job.getRequiredSkills() != null && !job.getRequiredSkills().isEmpty()) {
-            long matches = job.getRequiredSkills().stream()
-                    .filter(s -> candidateSkills.contains(s.getTitle().toLowerCase().trim()))
-                    .count();
-            score += ((double) matches / job.getRequiredSkills().size()) * 60;
+        // Skill Matching (Max 60 points): merge intersection of the two sorted skill id sets
+        int[] jobSkillIds = jobSkillIndex.skillIdsOf(job.getId());
+        int required;
+        if (jobSkillIds != null) {
+            required = jobSkillIds.length;
+        } else {
+            List<String> titles = job.getRequiredSkills() == null ? List.of()
+                    : job.getRequiredSkills().stream().map(Skill::getTitle).collect(Collectors.toList());
+            jobSkillIds = skillDictionary.knownIdsOf(titles);
+            required = SkillDictionary.distinctCount(titles);
+        }
+        if (required > 0) {
+            score += ((double) SkillIds.intersectionSize(jobSkillIds, candidateSkillIds) / required) * 60;
         }
 
         // Location Matching (Max 20 points)
-        String userLoc = candidate.getLocation();
         if (userLoc != null && job.getEmployer() != null && job.getEmployer().getLocation() != null) {
             if (userLoc.equalsIgnoreCase(job.getEmployer().getLocation())) {
                 score += 20;
@@ -419,7 +407,6 @@ public class RecommendationService {
         boolean isSeniorJob = jobTitle.contains("senior") || jobTitle.contains("lead") || jobTitle.contains("sr");
         boolean isJuniorJob = jobTitle.contains("junior") || jobTitle.contains("intern") || jobTitle.contains("jr");
 
-        double totalYears = calculateTotalExperience(candidate);
         if (isSeniorJob && totalYears >= 5) score += 20;
         else if (isJuniorJob && totalYears < 2) score += 20;
         else if (!isSeniorJob && !isJuniorJob && totalYears >= 2 && totalYears < 6) score += 20;
@@ -428,53 +415,4 @@ public class RecommendationService {
         return score;
     }
 
-    private double calculateCandidateMatchScore(User candidate, Set<String> requiredSkills, JobPost job) {
-        double score = 0;
-        Set<String> candidateSkills = candidate.getSkills().stream()
-                .map(s -> s.getTitle().toLowerCase().trim())
-                .collect(Collectors.toSet());
-
-        // Skill Match (60%)
-        long matches = candidateSkills.stream()
-                .filter(requiredSkills::contains)
-                .count();
-        score += ((double) matches / requiredSkills.size()) * 60;
-
-        // Experience Match (40%)
-        double totalYears = calculateTotalExperience(candidate);
-        String jobTitle = job.getTitle().toLowerCase();
-        if (jobTitle.contains("senior") && totalYears >= 5) score += 40;
-        else if (jobTitle.contains("junior") && totalYears < 3) score += 40;
-        else if (totalYears >= 1) score += 20;
-
-        return score;
-    }
-
-    private double calculateTotalExperience(User user) {
-        String level = user.getExperienceLevel();
-        if (level == null) return 0;
-        String normalized = level.toLowerCase(Locale.ROOT);
-        if (normalized.contains("entry") || normalized.contains("0-1")) return 0.5;
-        if (normalized.contains("junior") || normalized.contains("1-3")) return 2.0;
-        if (normalized.contains("intermediate") || normalized.contains("3-5")) return 4.0;
-        if (normalized.contains("mid")) return 4.0;
-        if (normalized.contains("senior") || normalized.contains("5+")) return 6.0;
-        if (normalized.contains("lead") || normalized.contains("manager")) return 8.0;
-        return 2.0;
-    }
-
-
-    @Data
-    @AllArgsConstructor
-    private static class JobMatch {
-        JobPost job;
-        double score;
-    }
-
-    @Data
-    @AllArgsConstructor
-    private static class UserMatch {
-        User user;
-        double score;
-    }
 }
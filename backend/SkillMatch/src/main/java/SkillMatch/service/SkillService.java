@@ -22,6 +22,7 @@ public class SkillService {
 
     private final SkillRepo repo;
     private final UserRepo userRepository;
+    private final CandidateFeatureStore candidateFeatureStore;
 
     public List<SkillDTO> getUserSkills(Long userId) {
         User user = userRepository.findById(userId)
@@ -39,7 +40,9 @@ public class SkillService {
         String email = authentication.getName();
         User user = userRepository.findByEmail(email);
         skill.setUser(user);
-        return repo.save(skill);
+        Skill saved = repo.save(skill);
+        refreshOwner(saved);
+        return saved;
     }
 
     public List<SkillDTO>getSkills(){
@@ -58,13 +61,22 @@ public class SkillService {
     public Skill deleteSkill(long id){
         Skill skill= repo.findById(id).orElseThrow(()->new ResourceNotFoundException("Skill not found"));
         repo.delete(skill);
+        refreshOwner(skill);
         return skill;
     }
 
     public Skill updateSkill(long id, Skill newSkill){
         Skill existingSkill = repo.findById(id).orElseThrow(()->new ResourceNotFoundException("Skill not found"));
         existingSkill.setTitle(newSkill.getTitle());
-        return repo.save(existingSkill);
+        Skill saved = repo.save(existingSkill);
+        refreshOwner(saved);
+        return saved;
+    }
+
+    private void refreshOwner(Skill skill) {
+        if (skill.getUser() != null) {
+            candidateFeatureStore.refresh(skill.getUser().getId());
+        }
     }
 
 }
@@ -0,0 +1,97 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.RevokedTokenRepository;
+import SkillMatch.repository.SecureTokenRepository;
+import SkillMatch.repository.TokenRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+/**
+ * Deletes expired login tokens, verification codes and revocation entries in small batches, so
+ * the token tables only ever hold live rows. Each batch is its own short transaction and a tick
+ * stops after a bounded number of batches; a backlog is worked off over the following ticks.
+ * Login tokens stored before expires_at existed first get the full default validity, since the
+ * V11 script that would do so is not run automatically.
+ */
+@Service
+@Slf4j
+public class TokenPurgeService {
+
+    /** Default JWT validity; issue time was never stored for legacy tokens. */
+    private static final int LEGACY_TOKEN_VALIDITY_DAYS = 7;
+
+    private final TokenRepo tokenRepo;
+    private final SecureTokenRepository secureTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Counter purgedCounter;
+
+    @Value("${auth.token-purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${auth.token-purge.max-batches-per-tick:20}")
+    private int maxBatchesPerTick;
+
+    public TokenPurgeService(TokenRepo tokenRepo,
+                             SecureTokenRepository secureTokenRepository,
+                             RevokedTokenRepository revokedTokenRepository,
+                             MeterRegistry meterRegistry) {
+        this.tokenRepo = tokenRepo;
+        this.secureTokenRepository = secureTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.purgedCounter = meterRegistry.counter("auth.tokens.purged");
+    }
+
+    @Scheduled(initialDelayString = "${auth.token-purge.interval-ms:600000}",
+            fixedDelayString = "${auth.token-purge.interval-ms:600000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        assignLegacyExpiry(now.plusDays(LEGACY_TOKEN_VALIDITY_DAYS));
+        int tokens = purgeTable(tokenRepo::purgeExpired, now);
+        int codes = purgeTable(secureTokenRepository::purgeExpired, now);
+        int revocations = purgeTable(revokedTokenRepository::purgeExpired, now);
+        if (tokens + codes + revocations > 0) {
+            log.info("Purged expired tokens: {} login tokens, {} secure tokens, {} revocations",
+                    tokens, codes, revocations);
+        }
+    }
+
+    private void assignLegacyExpiry(LocalDateTime expiresAt) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerTick; i++) {
+            int updated;
+            try {
+                updated = tokenRepo.assignLegacyExpiry(expiresAt, batchSize);
+            } catch (Exception e) {
+                log.warn("Legacy token expiry batch failed: {}", e.getMessage());
+                break;
+            }
+            total += updated;
+            if (updated < batchSize) break;
+        }
+        if (total > 0) log.info("Assigned an expiry to {} legacy login tokens", total);
+    }
+
+    int purgeTable(BiFunction<LocalDateTime, Integer, Integer> purgeBatch, LocalDateTime now) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerTick; i++) {
+            int deleted;
+            try {
+                deleted = purgeBatch.apply(now, batchSize);
+            } catch (Exception e) {
+                log.warn("Token purge batch failed: {}", e.getMessage());
+                break;
+            }
+            total += deleted;
+            if (deleted < batchSize) break;
+        }
+        purgedCounter.increment(total);
+        return total;
+    }
+}
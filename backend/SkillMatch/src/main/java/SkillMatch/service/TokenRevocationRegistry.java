@@ -0,0 +1,191 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.RevokedTokenRepository;
+import SkillMatch.util.TokenHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident set of revoked-token fingerprints (the first 64 bits of the token's SHA-256), with an
+ * optional bloom filter in front, so checking a token is a memory probe. Only a fingerprint hit
+ * is confirmed against the revocation log. Revocations bump a database generation counter; every
+ * node polls it and pulls the new entries, and the set is rebuilt periodically to drop expired
+ * tokens.
+ */
+@Service
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final int BLOOM_HASHES = 3;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int bloomBits;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] fingerprints = new long[0];
+    private final Set<Long> recent = new HashSet<>();
+    private long[] bloom;
+    private long generation;
+    private volatile boolean ready = false;
+
+    public TokenRevocationRegistry(RevokedTokenRepository revokedTokenRepository,
+                                   @Value("${auth.revocation.bloom-bits:1048576}") int bloomBits) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.bloomBits = bloomBits > 0 ? Math.max(64, bloomBits) : 0;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.revocation.rebuild-interval-ms:3600000}")
+    @Transactional
+    public void rebuild() {
+        revokedTokenRepository.initializeGeneration();
+        // Read the generation first: entries committed meanwhile are either loaded now or pulled
+        // again by the next refresh, and adding one twice is harmless.
+        long current = currentGeneration();
+        LocalDateTime now = LocalDateTime.now();
+        // The token table stays the source of truth for logouts; seed the log from it so no
+        // revocation depends on a migration script having been run.
+        int seeded = revokedTokenRepository.backfillFromTokenTable(current, now);
+        if (seeded > 0) log.info("Seeded {} revoked tokens from the token table", seeded);
+        List<String> hashes = revokedTokenRepository.findHashesSince(-1, now);
+        long[] loaded = new long[hashes.size()];
+        long[] loadedBloom = bloomBits > 0 ? new long[(bloomBits + 63) >>> 6] : null;
+        for (int i = 0; i < loaded.length; i++) {
+            loaded[i] = TokenHash.fingerprint(hashes.get(i));
+            if (loadedBloom != null) addToBloom(loadedBloom, loaded[i]);
+        }
+        Arrays.sort(loaded);
+
+        lock.writeLock().lock();
+        try {
+            fingerprints = loaded;
+            recent.clear();
+            bloom = loadedBloom;
+            generation = current;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Token revocation registry rebuilt: {} revoked tokens, generation {}", loaded.length, current);
+    }
+
+    /**
+     * Pulls revocations made on any node since the last seen generation.
+     */
+    @Scheduled(initialDelayString = "${auth.revocation.refresh-interval-ms:5000}",
+            fixedDelayString = "${auth.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!ready) return;
+        long seen;
+        lock.readLock().lock();
+        try {
+            seen = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+        long current = currentGeneration();
+        if (current <= seen) return;
+
+        List<String> hashes = revokedTokenRepository.findHashesSince(seen, LocalDateTime.now());
+        lock.writeLock().lock();
+        try {
+            for (String hash : hashes) {
+                addUnlocked(TokenHash.fingerprint(hash));
+            }
+            generation = Math.max(generation, current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records a revoked token so every node rejects it until it expires.
+     */
+    @Transactional
+    public void revoke(String jwt, Date expiresAt) {
+        if (jwt == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) return;
+        byte[] digest = TokenHash.sha256(jwt);
+        revokedTokenRepository.incrementGeneration();
+        long revokedGeneration = currentGeneration();
+        revokedTokenRepository.record(TokenHash.hex(digest), revokedGeneration,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+
+        lock.writeLock().lock();
+        try {
+            addUnlocked(TokenHash.fingerprint(digest));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isRevoked(String jwt) {
+        return jwt != null && isRevoked(TokenHash.sha256(jwt));
+    }
+
+    /**
+     * Whether the token with this SHA-256 digest was revoked. A miss in memory is authoritative;
+     * a fingerprint hit (or a probe before the first rebuild) is confirmed in the database.
+     */
+    public boolean isRevoked(byte[] digest) {
+        if (!ready) return revokedTokenRepository.existsByTokenHash(TokenHash.hex(digest));
+        long fingerprint = TokenHash.fingerprint(digest);
+        lock.readLock().lock();
+        try {
+            if (bloom != null && !mightContain(bloom, fingerprint)) return false;
+            if (Arrays.binarySearch(fingerprints, fingerprint) < 0 && !recent.contains(fingerprint)) return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return revokedTokenRepository.existsByTokenHash(TokenHash.hex(digest));
+    }
+
+    private long currentGeneration() {
+        Long current = revokedTokenRepository.currentGeneration();
+        return current != null ? current : 0L;
+    }
+
+    private void addUnlocked(long fingerprint) {
+        if (Arrays.binarySearch(fingerprints, fingerprint) >= 0) return;
+        recent.add(fingerprint);
+        if (bloom != null) addToBloom(bloom, fingerprint);
+    }
+
+    private void addToBloom(long[] bits, long fingerprint) {
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = bloomIndex(fingerprint, i);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long[] bits, long fingerprint) {
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = bloomIndex(fingerprint, i);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Double hashing over the two halves of the fingerprint, which is already uniformly random.
+     */
+    private int bloomIndex(long fingerprint, int i) {
+        int h1 = (int) (fingerprint >>> 32);
+        int h2 = (int) fingerprint | 1;
+        return Math.floorMod(h1 + i * h2, bloomBits);
+    }
+}
@@ -0,0 +1,63 @@
+package SkillMatch.service;
+
+import SkillMatch.dto.UnreadCountsDTO;
+import SkillMatch.model.UserUnreadCounter;
+import SkillMatch.repository.MessageRepository;
+import SkillMatch.repository.NotificationRepository;
+import SkillMatch.repository.UserUnreadCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the per-user unread message and notification counters in step with the rows they
+ * count. Callers adjust the counters after the row change, in the same transaction; badge
+ * reads are a primary-key lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private final UserUnreadCounterRepository counterRepository;
+    private final MessageRepository messageRepository;
+    private final NotificationRepository notificationRepository;
+
+    /**
+     * Returns the user's counters, seeding them from the unread rows the first time they are read.
+     */
+    @Transactional
+    public UnreadCountsDTO getCounts(Long userId) {
+        UserUnreadCounter counter = counterRepository.findById(userId).orElse(null);
+        if (counter == null) {
+            counterRepository.initialize(userId,
+                    (int) messageRepository.countByRecipientIdAndIsReadFalse(userId),
+                    (int) notificationRepository.countByUserIdAndIsReadFalse(userId));
+            counter = counterRepository.findById(userId).orElseThrow();
+        }
+        return new UnreadCountsDTO(counter.getUnreadMessages(), counter.getUnreadNotifications());
+    }
+
+    public void messagesReceived(Long userId, int count) {
+        if (count != 0) counterRepository.addUnreadMessages(userId, count);
+    }
+
+    public void messagesRead(Long userId, int count) {
+        if (count != 0) counterRepository.addUnreadMessages(userId, -count);
+    }
+
+    public void allMessagesRead(Long userId) {
+        counterRepository.clearUnreadMessages(userId);
+    }
+
+    public void notificationsReceived(Long userId, int count) {
+        if (count != 0) counterRepository.addUnreadNotifications(userId, count);
+    }
+
+    public void notificationsRead(Long userId, int count) {
+        if (count != 0) counterRepository.addUnreadNotifications(userId, -count);
+    }
+
+    public void allNotificationsRead(Long userId) {
+        counterRepository.clearUnreadNotifications(userId);
+    }
+}
@@ -0,0 +1,84 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.UserInteractionRepository;
+import SkillMatch.util.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-user job click counts, loaded with one grouped query and kept in a small LRU cache with
+ * a TTL. Lets interest scoring look up clicks for any number of jobs without a query per job.
+ * Entries are invalidated whenever a new CLICK is recorded for the user.
+ */
+@Service
+public class UserClickProfileCache {
+
+    private final UserInteractionRepository interactionRepo;
+    private final BoundedTtlCache<Long, ClickProfile> profiles;
+
+    public UserClickProfileCache(UserInteractionRepository interactionRepo,
+                                 @Value("${recommendation.click-profile.ttl-ms:600000}") long ttlMs,
+                                 @Value("${recommendation.click-profile.max-users:10000}") int maxUsers) {
+        this.interactionRepo = interactionRepo;
+        this.profiles = new BoundedTtlCache<>(ttlMs, maxUsers);
+    }
+
+    public ClickProfile get(Long userId) {
+        if (userId == null) return ClickProfile.EMPTY;
+        return profiles.get(userId, id -> ClickProfile.of(interactionRepo.countClicksByJobForUser(id)));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) return;
+        profiles.invalidate(userId);
+    }
+
+    /**
+     * Immutable jobId -> click count map stored as parallel sorted primitive arrays.
+     */
+    public static final class ClickProfile {
+
+        static final ClickProfile EMPTY = new ClickProfile(new long[0], new int[0]);
+
+        private final long[] jobIds;
+        private final int[] counts;
+
+        private ClickProfile(long[] jobIds, int[] counts) {
+            this.jobIds = jobIds;
+            this.counts = counts;
+        }
+
+        static ClickProfile of(List<Object[]> rows) {
+            if (rows == null || rows.isEmpty()) return EMPTY;
+            long[] ids = new long[rows.size()];
+            int[] clicks = new int[rows.size()];
+            int n = 0;
+            for (Object[] row : rows) {
+                if (row[0] == null) continue;
+                ids[n] = ((Number) row[0]).longValue();
+                clicks[n] = ((Number) row[1]).intValue();
+                n++;
+            }
+            // Rows arrive ordered by job id; sort defensively so lookups can binary search.
+            long[] sortedIds = Arrays.copyOf(ids, n);
+            int[] sortedCounts = new int[n];
+            Arrays.sort(sortedIds);
+            for (int i = 0; i < n; i++) {
+                sortedCounts[Arrays.binarySearch(sortedIds, ids[i])] = clicks[i];
+            }
+            return new ClickProfile(sortedIds, sortedCounts);
+        }
+
+        public int clicks(long jobId) {
+            int pos = Arrays.binarySearch(jobIds, jobId);
+            return pos >= 0 ? counts[pos] : 0;
+        }
+
+        public int size() {
+            return jobIds.length;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import SkillMatch.repository.*;
 import SkillMatch.util.*;
 import SkillMatch.validator.ObjectValidator;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +32,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -73,6 +75,12 @@ public class UserService {
 
     private final PhotoRepository photoRepository;
 
+    private final CandidateFeatureStore candidateFeatureStore;
+
+    private final AuthPrincipalCache principalCache;
+
+    private final TokenRevocationRegistry revocationRegistry;
+
 
     public long countUsers() {
         return repo.count();
@@ -106,6 +114,7 @@ public class UserService {
     public User deleteUser(long id){
         User user= repo.findById(id).orElseThrow(()->new ResourceNotFoundException("User not found"));
         repo.delete(user);
+        candidateFeatureStore.remove(user.getId());
         return user;
     }
 
@@ -127,6 +136,7 @@ public class UserService {
         }
 
         repo.save(user);
+        candidateFeatureStore.refresh(user.getId());
         return  user;
     }
 
@@ -183,6 +193,7 @@ public class UserService {
         user.setActive(true);
         user.setAccountVerified(false);
         User saveUser=repo.save(user);
+        candidateFeatureStore.refresh(saveUser.getId());
 
         if (request.isEmployer()) {
             Employer employer = new Employer();
@@ -258,7 +269,9 @@ public class UserService {
         }
         
         user.setRegistrationStage(2);
-        return repo.save(user);
+        User saved = repo.save(user);
+        candidateFeatureStore.refresh(saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -287,7 +300,9 @@ public class UserService {
         }
 
         user.setRegistrationStage(3);
-        return repo.save(user);
+        User saved = repo.save(user);
+        candidateFeatureStore.refresh(saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -344,7 +359,9 @@ public class UserService {
 
         user.setRegistrationStage(4);
 
-        return repo.save(user);
+        User saved = repo.save(user);
+        candidateFeatureStore.refresh(saved.getId());
+        return saved;
     }
 
     public LoginResponse login(LoginRequest request){
@@ -384,6 +401,12 @@ public class UserService {
             token.setRevoked(true);
             tokenRepo.save(token);
         }
+        try {
+            revocationRegistry.revoke(jwt, jwtUtil.parseClaims(jwt).getExpiration());
+        } catch (JwtException e) {
+            // Already expired or not ours: nothing left to revoke
+        }
+        principalCache.evict(jwt);
     }
 
     public void resendRegistrationCode(String email) {
@@ -570,6 +593,8 @@ public class UserService {
         token.setToken(jwtToken);
         token.setRevoked(false);
         token.setExpired(false);
+        token.setExpiresAt(LocalDateTime.ofInstant(
+                jwtUtil.parseClaims(jwtToken).getExpiration().toInstant(), ZoneId.systemDefault()));
         token.setUser(user);
         tokenRepo.save(token);
 
@@ -0,0 +1,29 @@
+package SkillMatch.util;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Slim principal put in the security context for JWT-authenticated requests. Carries only what
+ * authorization needs; services still reload the full {@code User} by email when they need it.
+ */
+public record AuthenticatedUser(Long id, String email, Role role) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role != null ? role.getAuthorities() : Collections.emptyList();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
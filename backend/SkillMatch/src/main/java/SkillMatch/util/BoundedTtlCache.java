@@ -0,0 +1,102 @@
+package SkillMatch.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Small bounded cache: access-ordered LRU with a per-entry TTL, safe for concurrent callers.
+ * Values are loaded outside the lock; a load that overlaps an invalidation is returned but not
+ * cached, so a stale value can never overwrite the invalidation. Callers that load in several
+ * steps take a {@link #stamp()} first and store with {@link #putIfUnchanged}.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private long invalidations;
+
+    public BoundedTtlCache(long ttlMs, int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or null if there is none or it has expired.
+     */
+    public V getIfPresent(K key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) return null;
+            if (now - entry.expiresAt < 0) return entry.value;
+            entries.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached value, loading it on a miss. Null results are not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) return cached;
+        long stamp = stamp();
+        V value = loader.apply(key);
+        if (value != null) putIfUnchanged(key, value, stamp);
+        return value;
+    }
+
+    /**
+     * Invalidation stamp to take before loading a value for {@link #putIfUnchanged}.
+     */
+    public long stamp() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+    public void putIfUnchanged(K key, V value, long stamp) {
+        putIfUnchanged(key, value, stamp, Long.MAX_VALUE);
+    }
+
+    /**
+     * Caches the value unless something was invalidated since the stamp; the entry lives for the
+     * cache TTL or {@code ttlMs}, whichever is shorter.
+     */
+    public void putIfUnchanged(K key, V value, long stamp, long ttlMs) {
+        long ttl = Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        if (ttl <= 0) return;
+        long expiresAt = System.nanoTime() + ttl;
+        synchronized (entries) {
+            if (invalidations == stamp) entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * Replaces a live entry's value in place, keeping its expiry; absent keys are left absent.
+     */
+    public void update(K key, UnaryOperator<V> change) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) entries.put(key, new Entry<>(change.apply(entry.value), entry.expiresAt));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            invalidations++;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
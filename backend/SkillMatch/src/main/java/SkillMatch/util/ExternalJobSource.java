@@ -0,0 +1,21 @@
+package SkillMatch.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * External job boards scraped by the sync. The label is stored as {@code JobPost.source}; sources
+ * without detail pages carry everything on their listing page.
+ */
+@RequiredArgsConstructor
+@Getter
+public enum ExternalJobSource {
+    GAMJOBS("Gamjobs", true),
+    WAVE("Wave", true),
+    IOM_GAMBIA("IOMGambia", false),
+    MOJ_GAMBIA("MOJGambia", false),
+    UNJOBS("UNJobs", true);
+
+    private final String label;
+    private final boolean detailPages;
+}
@@ -0,0 +1,102 @@
+package SkillMatch.util;
+
+import SkillMatch.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque position in the ranked job feed. The feed first walks the user's ranked job ids by
+ * offset, then continues with a keyset scan over (postedAt, id) descending for everything else.
+ */
+public final class JobFeedCursor {
+
+    private static final String RANKED = "R";
+    private static final String KEYSET = "K";
+
+    private final boolean ranked;
+    private final int offset;
+    private final LocalDateTime postedAt;
+    private final Long id;
+
+    private JobFeedCursor(boolean ranked, int offset, LocalDateTime postedAt, Long id) {
+        this.ranked = ranked;
+        this.offset = offset;
+        this.postedAt = postedAt;
+        this.id = id;
+    }
+
+    public static JobFeedCursor start() {
+        return ranked(0);
+    }
+
+    public static JobFeedCursor ranked(int offset) {
+        return new JobFeedCursor(true, offset, null, null);
+    }
+
+    public static JobFeedCursor keysetStart() {
+        return new JobFeedCursor(false, 0, null, null);
+    }
+
+    public static JobFeedCursor keyset(LocalDateTime postedAt, long id) {
+        return new JobFeedCursor(false, 0, postedAt, id);
+    }
+
+    public boolean isRanked() {
+        return ranked;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public LocalDateTime getPostedAt() {
+        return postedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * True for a keyset cursor that has not consumed any row yet.
+     */
+    public boolean isKeysetStart() {
+        return !ranked && postedAt == null;
+    }
+
+    public String encode() {
+        String raw;
+        if (ranked) {
+            raw = RANKED + ":" + offset;
+        } else if (postedAt == null) {
+            raw = KEYSET;
+        } else {
+            raw = KEYSET + ":" + postedAt + ":" + id;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JobFeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return start();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.equals(KEYSET)) return keysetStart();
+            if (raw.startsWith(RANKED + ":")) {
+                int offset = Integer.parseInt(raw.substring(2));
+                if (offset < 0) throw new IllegalArgumentException("negative offset");
+                return ranked(offset);
+            }
+            if (raw.startsWith(KEYSET + ":")) {
+                int split = raw.lastIndexOf(':');
+                LocalDateTime postedAt = LocalDateTime.parse(raw.substring(2, split));
+                long id = Long.parseLong(raw.substring(split + 1));
+                return keyset(postedAt, id);
+            }
+        } catch (RuntimeException e) {
+            // fall through to the validation error below
+        }
+        throw new ValidationException("Invalid cursor");
+    }
+}
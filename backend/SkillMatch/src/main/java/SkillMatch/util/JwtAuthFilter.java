@@ -1,6 +1,6 @@
 package SkillMatch.util;
 
-import SkillMatch.service.MyUserDetailsService;
+import SkillMatch.service.AuthPrincipalCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,34 +19,21 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
-    @Autowired
-    private MyUserDetailsService userDetailsService;
+    private AuthPrincipalCache principalCache;
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader=request.getHeader("Authorization");
-        String username=null;
-        String jwt=null;
-
-        if(authHeader!=null&&authHeader.startsWith("Bearer ")){
-            try{
-                jwt=authHeader.substring(7).trim();
-                username=jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                username = null;
-                jwt = null;
-            }
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = principalCache.resolve(authHeader.substring(7).trim());
 
-            if (jwtUtil.isTokenValid(jwt)) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                principal,
                                 null,
-                                userDetails.getAuthorities());
+                                principal.getAuthorities());
 
 
 
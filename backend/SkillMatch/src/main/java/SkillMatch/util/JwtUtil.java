@@ -1,6 +1,6 @@
 package SkillMatch.util;
-import SkillMatch.model.Token;
-import SkillMatch.repository.TokenRepo;
+import SkillMatch.service.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,7 +19,7 @@ public class JwtUtil {
     private long tokenValidityInMinutes;
 
     @Autowired
-    private TokenRepo repo;
+    private TokenRevocationRegistry revocationRegistry;
 
     public JwtUtil(@Value("${jwt.secret}") String secret) {
         if (secret == null || secret.trim().isEmpty()) {
@@ -41,24 +41,27 @@ public class JwtUtil {
     }
 
     public String extractUsername(String token) {
+        return parseClaims(token).getSubject();
+    }
+
+    /**
+     * Verifies the signature and expiry and returns the claims; throws if the token is invalid.
+     */
+    public Claims parseClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(key)
                 .build()
                 .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+                .getBody();
     }
 
+    /**
+     * Signature and expiry check plus a probe of the in-memory revocation registry.
+     */
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-            Token token1=repo.findByToken(token);
-            if (token1 == null) return false;
-            boolean isValid=!token1.isExpired() && !token1.isRevoked();
-            return isValid;
+            parseClaims(token);
+            return !revocationRegistry.isRevoked(token);
         } catch (Exception e) {
             return false;
         }
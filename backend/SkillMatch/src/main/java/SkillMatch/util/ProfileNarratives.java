@@ -0,0 +1,72 @@
+package SkillMatch.util;
+
+import SkillMatch.model.JobPost;
+import SkillMatch.model.Skill;
+import SkillMatch.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Text and feature helpers shared by recommendation scoring and the ML engine sync.
+ */
+public final class ProfileNarratives {
+
+    private ProfileNarratives() {
+    }
+
+    public static String userNarrative(User user) {
+        StringBuilder narrative = new StringBuilder();
+        String latestTitle = (user.getProfession() == null || user.getProfession().isBlank()) ? "Professional" : user.getProfession();
+        double years = experienceYears(user);
+
+        narrative.append(latestTitle)
+                .append(" with ")
+                .append(String.format("%.1f", years))
+                .append(" years of experience. ");
+
+        if (user.getSkills() != null && !user.getSkills().isEmpty()) {
+            narrative.append("Skilled in: ")
+                    .append(user.getSkills().stream().map(Skill::getTitle).collect(Collectors.joining(", ")))
+                    .append(". ");
+        }
+
+        return narrative.toString();
+    }
+
+    public static String jobNarrative(JobPost job) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(job.getTitle()).append(". ");
+        sb.append(job.getDescription()).append(". ");
+        if (job.getRequiredSkills() != null && !job.getRequiredSkills().isEmpty()) {
+            sb.append("Required skills: ")
+                    .append(job.getRequiredSkills().stream().map(Skill::getTitle).collect(Collectors.joining(", ")));
+        }
+        return sb.toString();
+    }
+
+    public static double experienceYears(User user) {
+        return experienceYears(user.getExperienceLevel());
+    }
+
+    public static double experienceYears(String level) {
+        if (level == null) return 0;
+        String normalized = level.toLowerCase(Locale.ROOT);
+        if (normalized.contains("entry") || normalized.contains("0-1")) return 0.5;
+        if (normalized.contains("junior") || normalized.contains("1-3")) return 2.0;
+        if (normalized.contains("intermediate") || normalized.contains("3-5")) return 4.0;
+        if (normalized.contains("mid")) return 4.0;
+        if (normalized.contains("senior") || normalized.contains("5+")) return 6.0;
+        if (normalized.contains("lead") || normalized.contains("manager")) return 8.0;
+        return 2.0;
+    }
+
+    public static String postedAgo(LocalDateTime postedAt) {
+        if (postedAt == null) return "1d";
+        long hours = ChronoUnit.HOURS.between(postedAt, LocalDateTime.now());
+        if (hours < 24) return hours + "h";
+        return (hours / 24) + "d";
+    }
+}
@@ -0,0 +1,82 @@
+package SkillMatch.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiter: permits accrue at a fixed rate up to {@code burst}, and
+ * {@link #acquire()} waits only for the time still missing since the previous permit, so time a
+ * caller spends working counts towards the interval. Safe for concurrent callers.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private long nextFreeNanos;
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be positive");
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(0, burst - 1);
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public static RateLimiter perMinute(double permitsPerMinute) {
+        return new RateLimiter(permitsPerMinute / 60.0, 1);
+    }
+
+    /**
+     * Blocks until a permit is available.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    /**
+     * Takes a permit only if one is available right now.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Takes {@code permits} at once only if that many have accrued; more than the burst never are.
+     */
+    public synchronized boolean tryAcquire(int permits) {
+        if (!canAcquire(permits)) return false;
+        nextFreeNanos += intervalNanos * permits;
+        return true;
+    }
+
+    /**
+     * Whether {@code permits} have accrued right now, without taking them.
+     */
+    public synchronized boolean canAcquire(int permits) {
+        long now = System.nanoTime();
+        accrue(now);
+        return nextFreeNanos + intervalNanos * (permits - 1) - now <= 0;
+    }
+
+    /**
+     * Takes {@code permits} unconditionally, going into debt that later callers wait off. Used to
+     * settle usage that turned out higher than what was reserved.
+     */
+    public synchronized void consume(int permits) {
+        accrue(System.nanoTime());
+        nextFreeNanos += intervalNanos * permits;
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        accrue(now);
+        long waitNanos = nextFreeNanos - now;
+        nextFreeNanos += intervalNanos;
+        return Math.max(0, waitNanos);
+    }
+
+    private void accrue(long now) {
+        // Idle time accrues permits, but never more than the burst
+        long earliest = now - burstNanos;
+        if (nextFreeNanos - earliest < 0) nextFreeNanos = earliest;
+    }
+}
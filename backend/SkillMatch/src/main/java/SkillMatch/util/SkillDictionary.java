@@ -0,0 +1,80 @@
+package SkillMatch.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide mapping of normalized skill titles to dense int ids, so skill sets can be held
+ * as sorted {@code int[]} arrays (see {@link SkillIds}). Ids are assigned on first sight and never
+ * reused. Only stored skill sets (indexed jobs and candidates) intern titles; lookups use
+ * {@link #knownIdsOf}, since a title nobody holds cannot match anything.
+ */
+@Component
+public class SkillDictionary {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public static String normalize(String title) {
+        return title == null ? "" : title.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Returns the id of the title, assigning a new one if needed; -1 for blank titles.
+     */
+    public int intern(String title) {
+        String key = normalize(title);
+        if (key.isEmpty()) return -1;
+        Integer id = ids.get(key);
+        return id != null ? id : ids.computeIfAbsent(key, k -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Returns the id of the title, or -1 if it has never been interned.
+     */
+    public int idOf(String title) {
+        String key = normalize(title);
+        if (key.isEmpty()) return -1;
+        Integer id = ids.get(key);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Interns every title and returns the resulting skill set as sorted ids.
+     */
+    public int[] idsOf(Collection<String> titles) {
+        if (titles == null || titles.isEmpty()) return SkillIds.EMPTY;
+        return SkillIds.sortedSet(titles.stream().mapToInt(this::intern).toArray());
+    }
+
+    /**
+     * Returns the ids of the titles that have been interned, as a sorted set, without adding any.
+     */
+    public int[] knownIdsOf(Collection<String> titles) {
+        if (titles == null || titles.isEmpty()) return SkillIds.EMPTY;
+        return SkillIds.sortedSet(titles.stream().mapToInt(this::idOf).toArray());
+    }
+
+    /**
+     * Number of distinct non-blank titles after normalization, known to the dictionary or not.
+     */
+    public static int distinctCount(Collection<String> titles) {
+        if (titles == null) return 0;
+        Set<String> distinct = new HashSet<>();
+        for (String title : titles) {
+            String key = normalize(title);
+            if (!key.isEmpty()) distinct.add(key);
+        }
+        return distinct.size();
+    }
+
+    public int size() {
+        return nextId.get();
+    }
+}
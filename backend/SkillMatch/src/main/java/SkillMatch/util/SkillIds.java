@@ -0,0 +1,45 @@
+package SkillMatch.util;
+
+import java.util.Arrays;
+
+/**
+ * Static helpers for skill sets stored as sorted, duplicate-free {@code int[]} arrays of
+ * {@link SkillDictionary} ids. A set costs one int per skill it holds, whatever the size of
+ * the dictionary.
+ */
+public final class SkillIds {
+
+    public static final int[] EMPTY = new int[0];
+
+    private SkillIds() {
+    }
+
+    /**
+     * Sorts the ids and drops duplicates and negative (unknown) ids; may reuse the given array.
+     */
+    public static int[] sortedSet(int[] ids) {
+        Arrays.sort(ids);
+        int n = 0;
+        for (int id : ids) {
+            if (id >= 0 && (n == 0 || ids[n - 1] != id)) ids[n++] = id;
+        }
+        return n == 0 ? EMPTY : n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    /**
+     * Size of the intersection of two sorted sets, by a single merge pass.
+     */
+    public static int intersectionSize(int[] a, int[] b) {
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package SkillMatch.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digests of bearer tokens, so caches and the revocation log never hold raw JWTs.
+ */
+public final class TokenHash {
+
+    private TokenHash() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String hex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    /**
+     * First eight bytes of the digest as a long: the compact in-memory fingerprint of a token.
+     */
+    public static long fingerprint(byte[] digest) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (digest[i] & 0xFF);
+        }
+        return value;
+    }
+
+    public static long fingerprint(String hexDigest) {
+        return Long.parseUnsignedLong(hexDigest.substring(0, 16), 16);
+    }
+}
@@ -0,0 +1,149 @@
+package SkillMatch.util;
+
+import java.util.Arrays;
+
+/**
+ * Bounded top-K selection over (id, score) pairs without boxing or per-item allocation.
+ * Keeps a fixed-size min-heap in parallel long[] / double[] arrays so ranking n items
+ * costs O(n log k). Equal scores are broken in favour of the larger id.
+ */
+public class TopKSelector {
+
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopKSelector(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        this.ids = new long[k];
+        this.scores = new double[k];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * Offers an item; it is kept only if it ranks among the best k seen so far.
+     */
+    public void offer(long id, double score) {
+        if (ids.length == 0 || Double.isNaN(score)) return;
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (worse(0, id, score)) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Merges the contents of another selector into this one.
+     */
+    public void offerAll(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i]);
+        }
+    }
+
+    /**
+     * Returns the selected ids ordered best first. Does not modify the selector.
+     */
+    public long[] idsDescending() {
+        int[] order = orderDescending();
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) result[i] = ids[order[i]];
+        return result;
+    }
+
+    /**
+     * Returns the selected scores ordered best first, aligned with {@link #idsDescending()}.
+     */
+    public double[] scoresDescending() {
+        int[] order = orderDescending();
+        double[] result = new double[size];
+        for (int i = 0; i < size; i++) result[i] = scores[order[i]];
+        return result;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private int[] orderDescending() {
+        // Heap-sort a copy so the selector can keep accepting offers afterwards.
+        long[] heapIds = Arrays.copyOf(ids, size);
+        double[] heapScores = Arrays.copyOf(scores, size);
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) positions[i] = i;
+
+        int[] order = new int[size];
+        int remaining = size;
+        while (remaining > 0) {
+            order[remaining - 1] = positions[0];
+            remaining--;
+            heapIds[0] = heapIds[remaining];
+            heapScores[0] = heapScores[remaining];
+            positions[0] = positions[remaining];
+            siftDown(heapIds, heapScores, positions, 0, remaining);
+        }
+        return order;
+    }
+
+    private boolean worse(int heapIndex, long id, double score) {
+        double heapScore = scores[heapIndex];
+        return heapScore < score || (heapScore == score && ids[heapIndex] < id);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(ids, scores, index, parent)) break;
+            swap(ids, scores, null, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        siftDown(ids, scores, null, index, size);
+    }
+
+    private static void siftDown(long[] ids, double[] scores, int[] positions, int index, int size) {
+        while (true) {
+            int left = (index << 1) + 1;
+            if (left >= size) return;
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && less(ids, scores, right, left)) smallest = right;
+            if (!less(ids, scores, smallest, index)) return;
+            swap(ids, scores, positions, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static boolean less(long[] ids, double[] scores, int a, int b) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && ids[a] < ids[b]);
+    }
+
+    private static void swap(long[] ids, double[] scores, int[] positions, int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        if (positions != null) {
+            int position = positions[a];
+            positions[a] = positions[b];
+            positions[b] = position;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+-- Revocation log and generation counter behind the in-memory token revocation registry
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    generation BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_generation ON revoked_tokens(generation);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+CREATE TABLE IF NOT EXISTS token_revocation_generation (
+    id INT PRIMARY KEY,
+    generation BIGINT NOT NULL
+);
+
+INSERT INTO token_revocation_generation (id, generation) VALUES (1, 1)
+ON CONFLICT (id) DO NOTHING;
+
+-- Backfill tokens already revoked at logout; the original expiry is not stored, so assume the
+-- full default validity (token.validity.minutes = 7 days)
+INSERT INTO revoked_tokens (token_hash, generation, expires_at)
+SELECT encode(sha256(convert_to(t.token, 'UTF8')), 'hex'), 1, now() + interval '7 days'
+FROM token t
+WHERE t.revoked = true
+ON CONFLICT (token_hash) DO NOTHING;
+
+-- Logout still looks tokens up by value
+CREATE INDEX IF NOT EXISTS idx_token_token ON token(token);
@@ -0,0 +1,9 @@
+-- Expiry columns and indexes for the scheduled token purge
+
+ALTER TABLE token ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+-- Issue time was never stored; give existing tokens the full default validity (7 days)
+UPDATE token SET expires_at = now() + interval '7 days' WHERE expires_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_token_expires_at ON token(expires_at);
+CREATE INDEX IF NOT EXISTS idx_secure_tokens_expired_at ON secure_tokens(expired_at);
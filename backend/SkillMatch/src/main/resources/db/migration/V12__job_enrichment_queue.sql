@@ -0,0 +1,12 @@
+-- Durable queue of scraped jobs stored raw and waiting for AI structuring
+
+CREATE TABLE IF NOT EXISTS job_enrichment_queue (
+    id BIGSERIAL PRIMARY KEY,
+    job_post_id BIGINT NOT NULL UNIQUE REFERENCES job_post(id) ON DELETE CASCADE,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The scheduler polls rows that are due for (re)structuring
+CREATE INDEX IF NOT EXISTS idx_job_enrichment_queue_next_attempt ON job_enrichment_queue(next_attempt_at);
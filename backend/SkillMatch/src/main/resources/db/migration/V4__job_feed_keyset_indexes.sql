@@ -0,0 +1,7 @@
+-- Keyset pagination for the ranked job feed (/api/recommendations/jobs/all)
+
+-- Unranked jobs are scanned newest first by (posted_at, id)
+CREATE INDEX IF NOT EXISTS idx_job_post_posted_at_id ON job_post(posted_at DESC, id DESC);
+
+-- Ranked job ids are read per user in rank order
+CREATE INDEX IF NOT EXISTS idx_job_rec_user_rank ON job_recommendations(user_id, rank);
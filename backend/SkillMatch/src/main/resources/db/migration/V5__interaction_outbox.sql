@@ -0,0 +1,14 @@
+-- Durable outbox for interactions waiting to be synced to the ML engine
+
+CREATE TABLE IF NOT EXISTS interaction_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    job_id BIGINT NOT NULL,
+    interaction_type VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The dispatcher polls rows that are due for (re)delivery
+CREATE INDEX IF NOT EXISTS idx_interaction_outbox_next_attempt ON interaction_outbox(next_attempt_at);
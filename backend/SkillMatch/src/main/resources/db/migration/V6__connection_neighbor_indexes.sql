@@ -0,0 +1,7 @@
+-- Id-only accepted-connection lookups (ConnectionRepository.findAcceptedNeighborIds)
+
+-- Covers the requester side of the UNION: WHERE requester_id = ? AND accepted, returning target_id
+CREATE INDEX IF NOT EXISTS idx_connections_requester_target_accepted ON connections(requester_id, target_id, accepted);
+
+-- Covers the target side of the UNION: WHERE target_id = ? AND accepted, returning requester_id
+CREATE INDEX IF NOT EXISTS idx_connections_target_requester_accepted ON connections(target_id, requester_id, accepted);
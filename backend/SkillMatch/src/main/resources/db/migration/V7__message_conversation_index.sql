@@ -0,0 +1,4 @@
+-- Keyset pagination for conversation history (/api/messages/conversation/{otherUserId})
+
+-- Each direction of a conversation is read newest first by (sent_at, id)
+CREATE INDEX IF NOT EXISTS idx_messages_sender_recipient_sent_at ON messages(sender_id, recipient_id, sent_at DESC, id DESC);
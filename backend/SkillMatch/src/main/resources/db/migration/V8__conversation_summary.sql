@@ -0,0 +1,40 @@
+-- Materialized inbox: one row per conversation, keyed by the ordered user pair
+
+CREATE TABLE IF NOT EXISTS conversation_summary (
+    id BIGSERIAL PRIMARY KEY,
+    user_low_id BIGINT NOT NULL,
+    user_high_id BIGINT NOT NULL,
+    last_message_id BIGINT NOT NULL,
+    last_sender_id BIGINT NOT NULL,
+    snippet VARCHAR(160),
+    unread_low INT NOT NULL DEFAULT 0,
+    unread_high INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_conversation_summary_pair UNIQUE (user_low_id, user_high_id)
+);
+
+-- The inbox reads each side of the pair by user, most recently active first
+CREATE INDEX IF NOT EXISTS idx_conversation_summary_low_updated ON conversation_summary(user_low_id, updated_at DESC);
+CREATE INDEX IF NOT EXISTS idx_conversation_summary_high_updated ON conversation_summary(user_high_id, updated_at DESC);
+
+-- Backfill from existing messages: latest message per pair plus each side's unread count
+INSERT INTO conversation_summary (user_low_id, user_high_id, last_message_id, last_sender_id, snippet, unread_low, unread_high, updated_at)
+SELECT DISTINCT ON (LEAST(m.sender_id, m.recipient_id), GREATEST(m.sender_id, m.recipient_id))
+       LEAST(m.sender_id, m.recipient_id),
+       GREATEST(m.sender_id, m.recipient_id),
+       m.id,
+       m.sender_id,
+       LEFT(m.content, 160),
+       0,
+       0,
+       m.sent_at
+FROM messages m
+WHERE m.sender_id IS NOT NULL AND m.recipient_id IS NOT NULL
+ORDER BY LEAST(m.sender_id, m.recipient_id), GREATEST(m.sender_id, m.recipient_id), m.sent_at DESC, m.id DESC
+ON CONFLICT (user_low_id, user_high_id) DO NOTHING;
+
+UPDATE conversation_summary s SET
+    unread_low = (SELECT COUNT(*) FROM messages m
+                  WHERE m.recipient_id = s.user_low_id AND m.sender_id = s.user_high_id AND m.is_read = false),
+    unread_high = (SELECT COUNT(*) FROM messages m
+                   WHERE m.recipient_id = s.user_high_id AND m.sender_id = s.user_low_id AND m.is_read = false);
@@ -0,0 +1,19 @@
+-- Maintained unread counters for message and notification badges
+
+CREATE TABLE IF NOT EXISTS user_unread_counters (
+    user_id BIGINT PRIMARY KEY,
+    unread_messages INT NOT NULL DEFAULT 0,
+    unread_notifications INT NOT NULL DEFAULT 0
+);
+
+-- Backfill from the current unread rows
+INSERT INTO user_unread_counters (user_id, unread_messages, unread_notifications)
+SELECT u.id,
+       (SELECT COUNT(*) FROM messages m WHERE m.recipient_id = u.id AND m.is_read = false),
+       (SELECT COUNT(*) FROM notification n WHERE n.user_id = u.id AND n.is_read = false)
+FROM users u
+ON CONFLICT (user_id) DO NOTHING;
+
+-- Bulk mark-all-read touches only a user's unread rows
+CREATE INDEX IF NOT EXISTS idx_messages_recipient_unread ON messages(recipient_id) WHERE is_read = false;
+CREATE INDEX IF NOT EXISTS idx_notification_user_unread ON notification(user_id) WHERE is_read = false;
@@ -0,0 +1,89 @@
+package SkillMatch.benchmark;
+
+import SkillMatch.util.SkillIds;
+import SkillMatch.util.SkillDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Skill overlap for one candidate against a pool of jobs: the lowercased HashSet&lt;String&gt;
+ * path the scoring methods used before versus a merge over sorted dictionary id sets.
+ * main() runs with the GC profiler so gc.alloc.rate.norm shows the bytes allocated per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillOverlapBenchmark {
+
+    @Param({"500", "5000"})
+    public int jobs;
+
+    @Param({"1000"})
+    public int vocabulary;
+
+    private List<String> candidateTitles;
+    private List<List<String>> jobTitles;
+    private int[] candidateIds;
+    private int[][] jobIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SkillDictionary dictionary = new SkillDictionary();
+        candidateTitles = randomTitles(random, 12);
+        jobTitles = new ArrayList<>(jobs);
+        for (int i = 0; i < jobs; i++) jobTitles.add(randomTitles(random, 6));
+
+        for (int i = 0; i < vocabulary; i++) dictionary.intern("Skill " + i);
+        candidateIds = dictionary.idsOf(candidateTitles);
+        jobIds = new int[jobs][];
+        for (int i = 0; i < jobs; i++) jobIds[i] = dictionary.idsOf(jobTitles.get(i));
+    }
+
+    @Benchmark
+    public void stringSetOverlap(Blackhole bh) {
+        Set<String> candidateSkills = candidateTitles.stream()
+                .map(t -> t.toLowerCase().trim())
+                .collect(Collectors.toSet());
+        for (List<String> required : jobTitles) {
+            long matches = required.stream()
+                    .filter(t -> candidateSkills.contains(t.toLowerCase().trim()))
+                    .count();
+            bh.consume((double) matches / required.size());
+        }
+    }
+
+    @Benchmark
+    public void sortedIdOverlap(Blackhole bh) {
+        for (int[] required : jobIds) {
+            bh.consume((double) SkillIds.intersectionSize(required, candidateIds) / required.length);
+        }
+    }
+
+    private List<String> randomTitles(Random random, int count) {
+        List<String> titles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) titles.add("Skill " + random.nextInt(vocabulary));
+        return titles;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SkillOverlapBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package SkillMatch.benchmark;
+
+import SkillMatch.util.TopKSelector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares bounded top-K selection against the boxed sort + limit the recommendation
+ * paths used before. Build with mvn test-compile and launch main() from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopKSelectorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int items;
+
+    @Param({"15", "20"})
+    public int k;
+
+    private long[] ids;
+    private double[] scores;
+    private List<ScoredItem> boxed;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ids = new long[items];
+        scores = new double[items];
+        for (int i = 0; i < items; i++) {
+            ids[i] = i;
+            scores[i] = random.nextDouble() * 100.0;
+        }
+        boxed = IntStream.range(0, items)
+                .mapToObj(i -> new ScoredItem(ids[i], scores[i]))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long[] topKSelector() {
+        TopKSelector top = new TopKSelector(k);
+        for (int i = 0; i < items; i++) {
+            top.offer(ids[i], scores[i]);
+        }
+        return top.idsDescending();
+    }
+
+    @Benchmark
+    public List<Long> streamSortAndLimit() {
+        return boxed.stream()
+                .map(item -> new ScoredItem(item.id, item.score))
+                .sorted(Comparator.comparingDouble(ScoredItem::getScore).reversed())
+                .limit(k)
+                .map(ScoredItem::getId)
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TopKSelectorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * Stand-in for the per-item JobMatch/UserMatch wrappers the stream path allocated.
+     */
+    private static final class ScoredItem {
+        private final long id;
+        private final double score;
+
+        ScoredItem(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        double getScore() {
+            return score;
+        }
+    }
+}
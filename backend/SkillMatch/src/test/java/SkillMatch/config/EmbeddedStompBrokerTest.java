@@ -0,0 +1,106 @@
+package SkillMatch.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedStompBrokerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmbeddedStompBroker broker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        broker = new EmbeddedStompBroker("127.0.0.1", 0, "guest", "guest", 100, meterRegistry);
+        broker.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.stop();
+    }
+
+    @Test
+    void testSend_FansOutToSubscribersOfTheDestination() throws Exception {
+        try (Socket subscriber = connect(); Socket publisher = connect()) {
+            // Arrange
+            write(subscriber, "SUBSCRIBE\nid:sub-1\ndestination:/queue/messages-userabc\nreceipt:r1\n\n\0");
+            assertTrue(readFrame(subscriber).startsWith("RECEIPT\nreceipt-id:r1"));
+
+            // Act
+            write(publisher, "SEND\ndestination:/queue/messages-userabc\ncontent-type:text/plain\ncontent-length:5\n\nhello\0");
+
+            // Assert
+            String message = readFrame(subscriber);
+            assertTrue(message.startsWith("MESSAGE\nsubscription:sub-1\nmessage-id:"));
+            assertTrue(message.contains("destination:/queue/messages-userabc\n"));
+            assertTrue(message.endsWith("\n\nhello"));
+            assertEquals(1.0, meterRegistry.get("websocket.broker.routed").tag("destination", "/queue/messages").counter().count());
+        }
+    }
+
+    @Test
+    void testConnect_RejectsBadCredentials() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", broker.getPort())) {
+            // Act
+            write(socket, "CONNECT\naccept-version:1.2\nlogin:guest\npasscode:wrong\n\n\0");
+
+            // Assert
+            assertTrue(readFrame(socket).startsWith("ERROR"));
+        }
+    }
+
+    @Test
+    void testSubscribe_RejectedWithoutConnect() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", broker.getPort())) {
+            // Act
+            write(socket, "SUBSCRIBE\nid:sub-1\ndestination:/queue/messages-userabc\nreceipt:r1\n\n\0");
+
+            // Assert: ERROR, then the broker closes the socket
+            assertTrue(readFrame(socket).startsWith("ERROR"));
+            assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+
+    @Test
+    void testMetricDestination_StripsUserAndSessionParts() {
+        assertEquals("/queue/messages", StompMetricsInterceptor.metricDestination("/queue/messages-user0f3a"));
+        assertEquals("/user/queue/messages", StompMetricsInterceptor.metricDestination("/user/jane@doe.com/queue/messages"));
+        assertEquals("/user/queue/messages", StompMetricsInterceptor.metricDestination("/user/queue/messages"));
+        assertEquals("/topic/simp-user-registry", StompMetricsInterceptor.metricDestination("/topic/simp-user-registry"));
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("127.0.0.1", broker.getPort());
+        socket.setSoTimeout(5000);
+        write(socket, "CONNECT\naccept-version:1.2\nlogin:guest\npasscode:guest\nheart-beat:10000,10000\n\n\0");
+        assertTrue(readFrame(socket).startsWith("CONNECTED\nversion:1.2\nheart-beat:0,0"));
+        return socket;
+    }
+
+    private static void write(Socket socket, String frame) throws IOException {
+        socket.getOutputStream().write(frame.getBytes(StandardCharsets.UTF_8));
+        socket.getOutputStream().flush();
+    }
+
+    private static String readFrame(Socket socket) throws IOException {
+        socket.setSoTimeout(5000);
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        for (int b = in.read(); b != 0; b = in.read()) {
+            if (b == -1) break;
+            frame.write(b);
+        }
+        return frame.toString(StandardCharsets.UTF_8);
+    }
+}
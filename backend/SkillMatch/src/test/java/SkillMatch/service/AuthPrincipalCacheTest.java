@@ -0,0 +1,82 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.UserRepo;
+import SkillMatch.util.AuthenticatedUser;
+import SkillMatch.util.JwtUtil;
+import SkillMatch.util.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthPrincipalCacheTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+
+    private AuthPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthPrincipalCache(jwtUtil, userRepo, revocationRegistry, 60_000L, 100);
+    }
+
+    @Test
+    void testResolve_ParsesAndQueriesOncePerTokenUntilRevoked() {
+        // Arrange
+        Claims claims = Jwts.claims().setSubject("candidate@test.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000L));
+        when(jwtUtil.parseClaims("jwt-1")).thenReturn(claims);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "candidate@test.com", Role.CANDIDATE});
+        when(userRepo.findPrincipalRowByEmail("candidate@test.com")).thenReturn(rows);
+
+        // Act
+        AuthenticatedUser first = cache.resolve("jwt-1");
+        AuthenticatedUser second = cache.resolve("jwt-1");
+        when(revocationRegistry.isRevoked(any(byte[].class))).thenReturn(true);
+        AuthenticatedUser afterLogout = cache.resolve("jwt-1");
+
+        // Assert
+        assertEquals(new AuthenticatedUser(1L, "candidate@test.com", Role.CANDIDATE), first);
+        assertSame(first, second);
+        assertEquals("candidate@test.com", first.getUsername());
+        assertNull(afterLogout);
+        verify(jwtUtil, times(1)).parseClaims("jwt-1");
+        verify(userRepo, times(1)).findPrincipalRowByEmail("candidate@test.com");
+    }
+
+    @Test
+    void testResolve_InvalidTokenIsNotCached() {
+        // Arrange
+        when(jwtUtil.parseClaims("bad")).thenThrow(new IllegalArgumentException("bad signature"));
+
+        // Act
+        AuthenticatedUser first = cache.resolve("bad");
+        AuthenticatedUser second = cache.resolve("bad");
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        verify(jwtUtil, times(2)).parseClaims("bad");
+        verifyNoInteractions(userRepo);
+    }
+}
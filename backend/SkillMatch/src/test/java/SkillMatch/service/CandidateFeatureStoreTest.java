@@ -0,0 +1,125 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.SkillRepo;
+import SkillMatch.repository.UserRepo;
+import SkillMatch.util.Role;
+import SkillMatch.util.SkillDictionary;
+import SkillMatch.util.TopKSelector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateFeatureStoreTest {
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private SkillRepo skillRepo;
+
+    private SkillDictionary skillDictionary;
+    private CandidateFeatureStore store;
+
+    @BeforeEach
+    void setUp() {
+        skillDictionary = new SkillDictionary();
+        store = new CandidateFeatureStore(userRepo, skillRepo, skillDictionary, new ParallelScoringEngine(1, 20_000, 4096));
+    }
+
+    @Test
+    void testRankForJob_ScoresWholePoolBySkillsAndSeniority() {
+        // Arrange
+        List<Object[]> profiles = new ArrayList<>();
+        profiles.add(new Object[]{1L, "Senior (5+ years)", "Banjul"});
+        profiles.add(new Object[]{2L, "Junior (1-3 years)", "Serrekunda"});
+        profiles.add(new Object[]{3L, null, null});
+        List<Object[]> skills = new ArrayList<>();
+        skills.add(new Object[]{1L, "Java"});
+        skills.add(new Object[]{1L, "Spring"});
+        skills.add(new Object[]{2L, " java "});
+        when(userRepo.findFeatureRowsByRole(Role.CANDIDATE)).thenReturn(profiles);
+        when(skillRepo.findUserSkillTitlesByRole(Role.CANDIDATE)).thenReturn(skills);
+        store.rebuild();
+
+        // Act
+        CandidateFeatureStore.JobProfile job = store.profileFor(List.of("Java", "Spring"), "Senior Backend Engineer");
+        TopKSelector top = store.rankForJob(job, 10, 10);
+
+        // Assert: 60 + 40 for user 1, 30 + 20 for user 2, user 3 scores 0 and is filtered
+        assertArrayEquals(new long[]{1L, 2L}, top.idsDescending());
+        assertArrayEquals(new double[]{100.0, 50.0}, top.scoresDescending(), 1e-9);
+        assertEquals(1, store.featuresOf(2L, job).getSharedSkills());
+    }
+
+    @Test
+    void testRefresh_UpsertsAndDropsNonCandidates() {
+        // Arrange
+        List<Object[]> row = new ArrayList<>();
+        row.add(new Object[]{7L, "Mid-level", "Banjul"});
+        when(userRepo.findFeatureRowByIdAndRole(7L, Role.CANDIDATE)).thenReturn(row, List.of());
+        when(skillRepo.findTitlesByUserId(7L)).thenReturn(List.of("Python"));
+
+        // Act
+        store.refresh(7L);
+        CandidateFeatureStore.JobProfile job = store.profileFor(List.of("python"), "Data Engineer");
+
+        // Assert
+        assertEquals(1, store.size());
+        assertEquals(1, store.featuresOf(7L, job).getSharedSkills());
+        assertEquals(4.0, store.featuresOf(7L, job).getExperienceYears());
+
+        store.refresh(7L);
+        assertEquals(0, store.size());
+        assertNull(store.featuresOf(7L, job));
+    }
+
+    @Test
+    void testRemove_KeepsOtherRowsIntactAcrossSkillGrowth() {
+        // Arrange: enough distinct skills to force the rows to widen past one word
+        for (long id = 1; id <= 3; id++) {
+            List<Object[]> row = new ArrayList<>();
+            row.add(new Object[]{id, null, null});
+            when(userRepo.findFeatureRowByIdAndRole(id, Role.CANDIDATE)).thenReturn(row);
+            List<String> titles = new ArrayList<>();
+            for (int s = 0; s < 50; s++) titles.add("skill-" + id + "-" + s);
+            when(skillRepo.findTitlesByUserId(id)).thenReturn(titles);
+            store.refresh(id);
+        }
+
+        // Act
+        store.remove(1L);
+
+        // Assert
+        CandidateFeatureStore.JobProfile job = store.profileFor(List.of("skill-3-49", "skill-2-0"), "Engineer");
+        assertEquals(2, store.size());
+        assertEquals(1, store.featuresOf(3L, job).getSharedSkills());
+        assertEquals(1, store.featuresOf(2L, job).getSharedSkills());
+    }
+
+    @Test
+    void testProfileFor_CountsUnknownSkillsWithoutInterningThem() {
+        // Arrange
+        List<Object[]> row = new ArrayList<>();
+        row.add(new Object[]{7L, null, null});
+        when(userRepo.findFeatureRowByIdAndRole(7L, Role.CANDIDATE)).thenReturn(row);
+        when(skillRepo.findTitlesByUserId(7L)).thenReturn(List.of("Java"));
+        store.refresh(7L);
+
+        // Act
+        CandidateFeatureStore.JobProfile job = store.profileFor(List.of("Java", "Rust", " rust "), "Engineer");
+
+        // Assert
+        assertEquals(2, job.getRequiredCount());
+        assertEquals(1, store.featuresOf(7L, job).getSharedSkills());
+        assertEquals(1, skillDictionary.size());
+    }
+}
@@ -0,0 +1,75 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.ConnectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionGraphTest {
+
+    @Mock
+    private ConnectionRepository connectionRepository;
+
+    private ConnectionGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new ConnectionGraph(connectionRepository);
+    }
+
+    @Test
+    void testMutualCounts_CountsSecondHopsAndSkipsDirectConnections() {
+        // Arrange: 1-2, 1-3, 2-4, 3-4, 3-5, 2-3 (stored twice, in both directions)
+        List<Object[]> edges = new ArrayList<>();
+        edges.add(new Object[]{1L, 2L});
+        edges.add(new Object[]{3L, 1L});
+        edges.add(new Object[]{2L, 4L});
+        edges.add(new Object[]{3L, 4L});
+        edges.add(new Object[]{3L, 5L});
+        edges.add(new Object[]{2L, 3L});
+        edges.add(new Object[]{3L, 2L});
+        when(connectionRepository.findAcceptedEdges()).thenReturn(edges);
+        graph.rebuild();
+
+        // Act
+        Map<Long, Integer> mutual = graph.mutualCounts(1L);
+
+        // Assert
+        assertEquals(Map.of(4L, 2, 5L, 1), mutual);
+        assertArrayEquals(new long[]{2L, 3L}, graph.connectionsOf(1L));
+        assertEquals(2, graph.mutualCount(1L, 4L));
+        assertTrue(graph.areConnected(3L, 2L));
+        assertFalse(graph.areConnected(1L, 5L));
+    }
+
+    @Test
+    void testAddEdge_VisibleBeforeAndAfterCompaction() {
+        // Arrange
+        when(connectionRepository.findAcceptedEdges()).thenReturn(new ArrayList<>());
+        graph.rebuild();
+
+        // Act: a star around user 0 large enough to trigger compaction, plus one edge after it
+        for (long i = 1; i <= 1500; i++) {
+            graph.addEdge(0L, i);
+        }
+        graph.addEdge(0L, 1L);
+        graph.addEdge(1L, 2L);
+
+        // Assert
+        assertEquals(1500, graph.connectionsOf(0L).length);
+        assertTrue(graph.areConnected(2L, 1L));
+        assertEquals(1, graph.mutualCount(1L, 2L));
+        assertEquals(1498, graph.mutualCounts(1L).size());
+        assertEquals(0, graph.mutualCount(0L, 99_999L));
+    }
+}
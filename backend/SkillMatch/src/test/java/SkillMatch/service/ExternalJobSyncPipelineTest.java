@@ -0,0 +1,161 @@
+package SkillMatch.service;
+
+import SkillMatch.dto.JobResponseDTO;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.util.ExternalJobSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExternalJobSyncPipelineTest {
+
+    @Mock
+    private ExternalJobService externalJobService;
+
+    @Mock
+    private JobPostRepo jobPostRepo;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExternalJobSyncPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new ExternalJobSyncPipeline(externalJobService, jobPostRepo, meterRegistry);
+        lenient().when(externalJobService.fetchDetails(any(), anyList())).thenAnswer(inv -> inv.getArgument(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void testRun_ScrapesAllSourcesConcurrently() {
+        // Arrange: each listing fetch waits until every source has started
+        int sources = ExternalJobSource.values().length;
+        CountDownLatch allStarted = new CountDownLatch(sources);
+        when(externalJobService.fetchListings(any())).thenAnswer(inv -> {
+            allStarted.countDown();
+            boolean concurrent = allStarted.await(5, TimeUnit.SECONDS);
+            ExternalJobSource source = inv.getArgument(0);
+            return page(concurrent ? List.of(job(source.getLabel() + "-1")) : List.of());
+        });
+        List<String> persisted = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        Map<ExternalJobSource, Integer> counts = pipeline.run((dto, source) -> persisted.add(dto.getUrl()));
+
+        // Assert
+        assertEquals(sources, persisted.size());
+        assertEquals(sources, counts.size());
+        counts.values().forEach(count -> assertEquals(1, count));
+    }
+
+    @Test
+    void testScrape_SkipsDetailFetchForKnownJobs() {
+        // Arrange
+        when(externalJobService.fetchListings(ExternalJobSource.GAMJOBS))
+                .thenReturn(page(List.of(job("known"), job("new"))));
+        List<Object[]> existing = new ArrayList<>();
+        existing.add(new Object[]{"known", "known"});
+        when(jobPostRepo.findExistingKeys(List.of("known", "new"))).thenReturn(existing);
+
+        // Act
+        List<JobResponseDTO> jobs = pipeline.scrape(ExternalJobSource.GAMJOBS).jobs();
+
+        // Assert
+        assertEquals(List.of("new"), jobs.stream().map(JobResponseDTO::getUrl).toList());
+        verify(externalJobService).fetchDetails(eq(ExternalJobSource.GAMJOBS),
+                argThat((List<JobResponseDTO> l) -> l.size() == 1 && l.get(0).getUrl().equals("new")));
+    }
+
+    @Test
+    void testDropKnown_OneQueryForTheListingAndRepeatsCollapsed() {
+        // Arrange: "b" is stored under its external id only; "c" appears twice in the listing
+        JobResponseDTO b = JobResponseDTO.builder().id("ext-b").url("b").build();
+        List<Object[]> existing = new ArrayList<>();
+        existing.add(new Object[]{"other-url", "ext-b"});
+        when(jobPostRepo.findExistingKeys(anyCollection())).thenReturn(existing);
+
+        // Act
+        List<JobResponseDTO> fresh = pipeline.dropKnown(List.of(job("a"), b, job("c"), job("c")));
+
+        // Assert
+        assertEquals(List.of("a", "c"), fresh.stream().map(JobResponseDTO::getUrl).toList());
+        verify(jobPostRepo, times(1)).findExistingKeys(anyCollection());
+        verify(jobPostRepo, never()).existsByJobUrl(anyString());
+    }
+
+    @Test
+    void testRun_PersistsRawJobsInListingOrder() {
+        // Arrange
+        when(externalJobService.fetchListings(any())).thenReturn(page(List.of()));
+        when(externalJobService.fetchListings(ExternalJobSource.UNJOBS))
+                .thenReturn(page(List.of(job("a"), job("b"), job("c"))));
+        List<String> persisted = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        Map<ExternalJobSource, Integer> counts = pipeline.run((dto, source) -> persisted.add(source + ":" + dto.getUrl()));
+
+        // Assert: stored as scraped, structuring is left to the scheduler
+        assertEquals(List.of("UNJobs:a", "UNJobs:b", "UNJobs:c"), persisted);
+        assertEquals(3, counts.get(ExternalJobSource.UNJOBS));
+    }
+
+    @Test
+    void testRun_SkipsUnchangedListingAndMarksCompletedOnesSynced() {
+        // Arrange
+        ExternalJobService.SourcePage changed = page(List.of(job("a")));
+        when(externalJobService.fetchListings(any())).thenReturn(changed);
+        when(externalJobService.fetchListings(ExternalJobSource.WAVE))
+                .thenReturn(new ExternalJobService.SourcePage("wave", "h", true, List.of()));
+
+        // Act
+        pipeline.run((dto, source) -> true);
+
+        // Assert
+        verify(externalJobService, never()).fetchDetails(eq(ExternalJobSource.WAVE), anyList());
+        verify(externalJobService, times(ExternalJobSource.values().length - 1)).markSynced(changed);
+        assertEquals(1.0, meterRegistry.counter("external_jobs.listing", "source", "Wave", "result", "unchanged").count());
+    }
+
+    @Test
+    void testRun_LeavesListingUnsyncedWhenAJobFailsToPersist() {
+        // Arrange
+        ExternalJobService.SourcePage changed = page(List.of(job("a"), job("b")));
+        when(externalJobService.fetchListings(any())).thenReturn(page(List.of()));
+        when(externalJobService.fetchListings(ExternalJobSource.UNJOBS)).thenReturn(changed);
+
+        // Act
+        Map<ExternalJobSource, Integer> counts = pipeline.run((dto, source) -> !"b".equals(dto.getUrl()));
+
+        // Assert
+        assertEquals(2, counts.get(ExternalJobSource.UNJOBS));
+        verify(externalJobService, never()).markSynced(changed);
+    }
+
+    private ExternalJobService.SourcePage page(List<JobResponseDTO> jobs) {
+        return new ExternalJobService.SourcePage("listing", "hash", false, jobs);
+    }
+
+    private JobResponseDTO job(String url) {
+        return JobResponseDTO.builder().id(url).url(url).title("Job " + url).description("").build();
+    }
+}
@@ -0,0 +1,159 @@
+package SkillMatch.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalPageFetcherTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger conditionalHits = new AtomicInteger();
+    private ExternalPageFetcher fetcher;
+    private PageCache pageCache;
+    private SimpleMeterRegistry meterRegistry;
+    private Path cacheDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("page-cache-test");
+        pageCache = new PageCache(cacheDir.toString(), true, 30);
+        meterRegistry = new SimpleMeterRegistry();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/job/", exchange -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(100);
+                byte[] body = ("<html><head><title>" + exchange.getRequestURI().getPath()
+                        + "</title></head><body>ok</body></html>").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/html");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.createContext("/listing", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                conditionalHits.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "<html><body><a href='/job/1'>Job</a></body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (fetcher != null) fetcher.shutdown();
+        server.stop(0);
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(file -> file.toFile().delete());
+        } catch (IOException ignored) {
+        }
+        cacheDir.toFile().delete();
+    }
+
+    @Test
+    void testMapConcurrently_CapsInFlightRequestsPerHost() {
+        // Arrange: generous rate so only the concurrency cap applies
+        fetcher = new ExternalPageFetcher(pageCache, meterRegistry, 60_000, 10, 2, 2_000, 5_000);
+        List<String> urls = IntStream.range(0, 6).mapToObj(i -> baseUrl + "/job/" + i).toList();
+
+        // Act
+        List<Document> docs = fetcher.mapConcurrently(urls, url -> url, url -> fetcher.fetch(url, null));
+
+        // Assert
+        assertEquals(List.of("/job/0", "/job/1", "/job/2", "/job/3", "/job/4", "/job/5"),
+                docs.stream().filter(Objects::nonNull).map(Document::title).toList());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void testMapConcurrently_HostsDoNotWaitBehindEachOthersBacklog() {
+        // Arrange: one request at a time per host; the second host is queued after the first's backlog
+        fetcher = new ExternalPageFetcher(pageCache, meterRegistry, 60_000, 10, 1, 2_000, 5_000);
+        String otherHost = baseUrl.replace("127.0.0.1", "localhost");
+        List<String> urls = Stream.concat(
+                IntStream.range(0, 3).mapToObj(i -> baseUrl + "/job/" + i),
+                IntStream.range(3, 6).mapToObj(i -> otherHost + "/job/" + i)).toList();
+
+        // Act
+        List<Document> docs = fetcher.mapConcurrently(urls, url -> url, url -> fetcher.fetch(url, null));
+
+        // Assert: both hosts were fetched side by side
+        assertEquals(6, docs.stream().filter(Objects::nonNull).count());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void testFetch_PacesRequestsWithHostTokenBucket() {
+        // Arrange: 10 requests per second, no burst
+        fetcher = new ExternalPageFetcher(pageCache, meterRegistry, 600, 1, 4, 2_000, 5_000);
+        List<String> urls = IntStream.range(0, 4).mapToObj(i -> baseUrl + "/job/" + i).toList();
+
+        // Act
+        long start = System.nanoTime();
+        List<Document> docs = fetcher.mapConcurrently(urls, url -> url, url -> fetcher.fetch(url, null));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert: three waits of 100 ms after the first request
+        assertEquals(4, docs.stream().filter(Objects::nonNull).count());
+        assertTrue(elapsedMs >= 280, "took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testFetchPage_RevalidatesCachedPageWithConditionalGet() {
+        // Arrange
+        fetcher = new ExternalPageFetcher(pageCache, meterRegistry, 60_000, 10, 2, 2_000, 5_000);
+        String url = baseUrl + "/listing";
+        ExternalPageFetcher.Page first = fetcher.fetchPage(url, null);
+
+        // Act
+        ExternalPageFetcher.Page second = fetcher.fetchPage(url, null);
+
+        // Assert
+        assertFalse(first.unchanged());
+        assertTrue(second.unchanged());
+        assertNull(second.parsed());
+        assertEquals(first.contentHash(), second.contentHash());
+        assertEquals("Job", second.document().selectFirst("a").text());
+        assertEquals(1, conditionalHits.get());
+        assertEquals(1.0, meterRegistry.counter("external_jobs.page_cache",
+                "host", "127.0.0.1", "result", "not_modified").count());
+    }
+}
@@ -0,0 +1,87 @@
+package SkillMatch.service;
+
+import SkillMatch.dto.JobResponseDTO;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.repository.SkillRepo;
+import SkillMatch.util.LocationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobMaterializerTest {
+
+    @Mock
+    private JobPostRepo jobPostRepo;
+
+    @Mock
+    private SkillRepo skillRepo;
+
+    @InjectMocks
+    private JobMaterializer jobMaterializer;
+
+    @Test
+    void testMaterialize_BuildsDtosInRequestedOrder() {
+        // Arrange
+        LocalDateTime postedAt = LocalDateTime.of(2026, 1, 1, 9, 0);
+        List<Object[]> jobs = new ArrayList<>();
+        jobs.add(new Object[]{1L, "Backend", "APIs", null, null, LocationType.REMOTE, "1k", null, "IT", postedAt, null, "Acme", "acme.png"});
+        jobs.add(new Object[]{2L, "Frontend", "UI", "Wave", "wave.png", null, null, "https://wave/jobs/2", null, postedAt, "Wave", null, null});
+        List<Object[]> skills = new ArrayList<>();
+        skills.add(new Object[]{1L, "Java"});
+        skills.add(new Object[]{1L, "SQL"});
+        skills.add(new Object[]{2L, "React"});
+        List<Object[]> requirements = new ArrayList<>();
+        requirements.add(new Object[]{2L, "3 years"});
+        when(jobPostRepo.findFlatRowsByIdIn(anyCollection())).thenReturn(jobs);
+        when(skillRepo.findJobSkillTitlesByJobIdIn(anyCollection())).thenReturn(skills);
+        when(jobPostRepo.findRequirementsByJobIdIn(anyCollection())).thenReturn(requirements);
+
+        // Act
+        List<JobResponseDTO> result = jobMaterializer.materialize(List.of(2L, 99L, 1L));
+
+        // Assert
+        assertEquals(List.of("2", "1"), result.stream().map(JobResponseDTO::getId).collect(Collectors.toList()));
+        JobResponseDTO frontend = result.get(0);
+        assertEquals("Wave", frontend.getEmployer().getName());
+        assertEquals("N/A", frontend.getLocationType());
+        assertEquals(List.of("React"), frontend.getSkills());
+        assertEquals(List.of("3 years"), frontend.getRequirements());
+        JobResponseDTO backend = result.get(1);
+        assertEquals("Acme", backend.getEmployer().getName());
+        assertEquals("acme.png", backend.getEmployer().getLogo());
+        assertEquals("Own", backend.getSource());
+        assertEquals(List.of("Java", "SQL"), backend.getSkills());
+        assertTrue(backend.getRequirements().isEmpty());
+    }
+
+    @Test
+    void testMaterialize_UsesThreeQueriesPerChunk() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, JobMaterializer.CHUNK_SIZE + 1).boxed().collect(Collectors.toList());
+        when(jobPostRepo.findFlatRowsByIdIn(anyCollection())).thenReturn(List.of());
+        when(skillRepo.findJobSkillTitlesByJobIdIn(anyCollection())).thenReturn(List.of());
+        when(jobPostRepo.findRequirementsByJobIdIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        jobMaterializer.materialize(ids);
+
+        // Assert
+        verify(jobPostRepo, times(2)).findFlatRowsByIdIn(anyCollection());
+        verify(skillRepo, times(2)).findJobSkillTitlesByJobIdIn(anyCollection());
+        verify(jobPostRepo, times(2)).findRequirementsByJobIdIn(anyCollection());
+        verifyNoMoreInteractions(jobPostRepo, skillRepo);
+    }
+}
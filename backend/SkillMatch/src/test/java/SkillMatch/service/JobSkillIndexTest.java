@@ -0,0 +1,86 @@
+package SkillMatch.service;
+
+import SkillMatch.model.JobPost;
+import SkillMatch.model.Skill;
+import SkillMatch.repository.SkillRepo;
+import SkillMatch.util.SkillDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobSkillIndexTest {
+
+    @Mock
+    private SkillRepo skillRepo;
+
+    @Spy
+    private SkillDictionary skillDictionary = new SkillDictionary();
+
+    @InjectMocks
+    private JobSkillIndex jobSkillIndex;
+
+    @Test
+    void testRebuild_RanksBySharedSkills() {
+        // Arrange
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Java"});
+        rows.add(new Object[]{1L, "Spring"});
+        rows.add(new Object[]{2L, " java "});
+        rows.add(new Object[]{3L, "Python"});
+        rows.add(new Object[]{4L, "Spring"});
+        when(skillRepo.findJobSkillTitles()).thenReturn(rows);
+
+        // Act
+        jobSkillIndex.rebuild();
+        long[] ids = jobSkillIndex.findJobsSharingSkills(Set.of("java", "spring"), 10);
+
+        // Assert
+        assertTrue(jobSkillIndex.isReady());
+        assertArrayEquals(new long[]{1L, 4L, 2L}, ids);
+        assertArrayEquals(new long[]{1L}, jobSkillIndex.findJobsSharingSkills(Set.of("java", "spring"), 1));
+        assertEquals(0, jobSkillIndex.findJobsSharingSkills(Set.of("rust"), 10).length);
+        assertEquals(2, jobSkillIndex.skillIdsOf(1L).length);
+    }
+
+    @Test
+    void testIndex_ReplacesAndRemovesPostings() {
+        // Arrange
+        JobPost job = jobWithSkills(7L, "Java", "SQL");
+        jobSkillIndex.index(job);
+
+        // Act
+        jobSkillIndex.index(jobWithSkills(7L, "SQL"));
+
+        // Assert
+        assertEquals(0, jobSkillIndex.findJobsSharingSkills(Set.of("java"), 10).length);
+        assertArrayEquals(new long[]{7L}, jobSkillIndex.findJobsSharingSkills(Set.of("sql"), 10));
+
+        jobSkillIndex.remove(7L);
+        assertEquals(0, jobSkillIndex.findJobsSharingSkills(Set.of("sql"), 10).length);
+    }
+
+    private JobPost jobWithSkills(long id, String... titles) {
+        JobPost job = new JobPost();
+        job.setId(id);
+        List<Skill> skills = new ArrayList<>();
+        for (String title : titles) {
+            Skill skill = new Skill();
+            skill.setTitle(title);
+            skill.setJobPost(job);
+            skills.add(skill);
+        }
+        job.setRequiredSkills(skills);
+        return job;
+    }
+}
@@ -0,0 +1,169 @@
+package SkillMatch.service;
+
+import SkillMatch.model.JobEnrichmentTask;
+import SkillMatch.model.JobPost;
+import SkillMatch.model.Skill;
+import SkillMatch.repository.JobEnrichmentQueueRepository;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.support.StubGemini;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobStructuringSchedulerTest {
+
+    @Mock
+    private JobEnrichmentQueueRepository queueRepository;
+
+    @Mock
+    private JobPostRepo jobPostRepo;
+
+    @Mock
+    private JobSkillIndex jobSkillIndex;
+
+    @Mock
+    private JobNotificationEmailService jobNotificationEmailService;
+
+    private StubGemini gemini;
+    private SimpleMeterRegistry meterRegistry;
+    private JobStructuringScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gemini = StubGemini.start();
+        ObjectMapper objectMapper = new ObjectMapper();
+        GeminiService geminiService = new GeminiService(new RestTemplate(), objectMapper);
+        ReflectionTestUtils.setField(geminiService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(geminiService, "apiUrl", gemini.url());
+
+        meterRegistry = new SimpleMeterRegistry();
+        // Budget: prompt instructions plus two 2000-character jobs, but not a third
+        int maxBatchTokens = geminiService.promptOverheadTokens() + 1200;
+        scheduler = new JobStructuringScheduler(queueRepository, jobPostRepo, geminiService, jobSkillIndex,
+                jobNotificationEmailService, objectMapper, meterRegistry, 6000, 6_000_000, maxBatchTokens);
+        ReflectionTestUtils.setField(scheduler, "maxBatchJobs", 10);
+        ReflectionTestUtils.setField(scheduler, "maxJobChars", 6000);
+        ReflectionTestUtils.setField(scheduler, "maxAttempts", 3);
+        ReflectionTestUtils.setField(scheduler, "baseBackoffMs", 1000L);
+        ReflectionTestUtils.setField(scheduler, "maxBackoffMs", 5000L);
+        lenient().when(jobPostRepo.save(any(JobPost.class))).thenAnswer(inv -> inv.getArgument(0));
+        // Let the token bucket fill to a full batch
+        Thread.sleep(50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gemini.close();
+    }
+
+    @Test
+    void testDispatch_PacksBatchByTokenBudgetAndStructuresJobs() {
+        // Arrange
+        List<JobPost> jobs = List.of(job(1L), job(2L), job(3L));
+        when(queueRepository.findReady(any(), any())).thenReturn(tasks(1L, 2L, 3L), List.of());
+        when(jobPostRepo.findAllById(any())).thenReturn(jobs);
+
+        // Act
+        scheduler.dispatch();
+
+        // Assert: two jobs fit the budget, the third waits for the next batch
+        assertEquals(1, gemini.bodies().size());
+        assertTrue(gemini.bodies().get(0).contains("### JOB 1 ###"));
+        assertFalse(gemini.bodies().get(0).contains("### JOB 2 ###"));
+        assertEquals("Structured 1", jobs.get(1).getTitle());
+        assertEquals("Technology", jobs.get(1).getIndustry());
+        assertEquals(List.of("Java", "SQL"), jobs.get(1).getRequiredSkills().stream().map(Skill::getTitle).toList());
+        assertEquals("Raw 3", jobs.get(2).getTitle());
+        verify(queueRepository).deleteByIdIn(List.of(101L, 102L));
+        verify(jobNotificationEmailService, times(2)).notifyIndustryMatches(any());
+        verify(queueRepository, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void testDispatch_QuotaRejectionPausesWithoutFailingJobs() {
+        // Arrange
+        gemini.respondWith(429);
+        when(queueRepository.findReady(any(), any())).thenReturn(tasks(1L));
+        when(jobPostRepo.findAllById(any())).thenReturn(List.of(job(1L)));
+
+        // Act: the second run falls inside the backoff
+        scheduler.dispatch();
+        scheduler.dispatch();
+
+        // Assert
+        assertEquals(1, gemini.bodies().size());
+        verify(queueRepository, never()).markFailed(any(), any());
+        verify(queueRepository, never()).deleteByIdIn(any());
+        assertEquals(1.0, meterRegistry.counter("gemini.requests", "result", "rate_limited").count());
+    }
+
+    @Test
+    void testDispatch_UnansweredJobsAreRetriedLater() {
+        // Arrange: the model answers only the first job of the batch
+        gemini.structureAtMost(1);
+        List<JobPost> jobs = List.of(job(1L), job(2L));
+        when(queueRepository.findReady(any(), any())).thenReturn(tasks(1L, 2L), List.of());
+        when(jobPostRepo.findAllById(any())).thenReturn(jobs);
+
+        // Act
+        scheduler.dispatch();
+
+        // Assert
+        assertEquals("Structured 0", jobs.get(0).getTitle());
+        assertEquals("Raw 2", jobs.get(1).getTitle());
+        verify(queueRepository).deleteByIdIn(List.of(101L));
+        verify(queueRepository).markFailed(argThat((Collection<Long> ids) -> ids.equals(List.of(102L))), any());
+    }
+
+    @Test
+    void testDispatch_GivesUpOnlyOnTasksThatUsedTheirLastAttempt() {
+        // Arrange: the model answers nothing; job 1 is on its last attempt, job 2 on its first
+        gemini.structureAtMost(0);
+        List<JobEnrichmentTask> tasks = tasks(1L, 2L);
+        tasks.get(0).setAttempts(2);
+        when(queueRepository.findReady(any(), any())).thenReturn(tasks);
+        when(jobPostRepo.findAllById(any())).thenReturn(List.of(job(1L), job(2L)));
+
+        // Act
+        scheduler.dispatch();
+
+        // Assert
+        verify(queueRepository).deleteByIdIn(List.of(101L));
+        verify(queueRepository).markFailed(argThat((Collection<Long> ids) -> ids.equals(List.of(102L))), any());
+    }
+
+    private List<JobEnrichmentTask> tasks(Long... jobIds) {
+        List<JobEnrichmentTask> tasks = new ArrayList<>();
+        for (Long jobId : jobIds) {
+            tasks.add(JobEnrichmentTask.builder().id(100L + jobId).jobPostId(jobId).attempts(0).build());
+        }
+        return tasks;
+    }
+
+    private JobPost job(long id) {
+        JobPost job = new JobPost();
+        job.setId(id);
+        job.setTitle("Raw " + id);
+        job.setDescription("<p>" + "x".repeat(2000) + "</p>");
+        job.setCompanyName("Acme");
+        job.setSource("Gamjobs");
+        job.setRequiredSkills(new ArrayList<>());
+        return job;
+    }
+}
@@ -0,0 +1,195 @@
+package SkillMatch.service;
+
+import SkillMatch.dto.CursorPageDTO;
+import SkillMatch.exception.ValidationException;
+import SkillMatch.model.ConversationSummary;
+import SkillMatch.model.Message;
+import SkillMatch.model.User;
+import SkillMatch.repository.ConversationSummaryRepository;
+import SkillMatch.repository.MessageRepository;
+import SkillMatch.repository.UserRepo;
+import SkillMatch.util.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ConnectionService connectionService;
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    private MessageService messageService;
+
+    private User candidate;
+    private User employer;
+
+    @BeforeEach
+    void setUp() {
+        messageService = new MessageService(messageRepository, connectionService, userRepo, messagingTemplate,
+                new MessageAuthorizationCache(60_000L, 100), conversationSummaryRepository,
+                unreadCounterService);
+        candidate = User.builder().id(1L).email("candidate@test.com").role(Role.CANDIDATE).build();
+        employer = User.builder().id(2L).email("employer@test.com").role(Role.EMPLOYER).build();
+        lenient().when(messageRepository.save(any(Message.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void testSendMessage_CandidateReplyIsAuthorizedFromCacheAfterFirstLookup() {
+        // Arrange
+        when(userRepo.findById(2L)).thenReturn(Optional.of(employer));
+        when(connectionService.areConnected(1L, 2L)).thenReturn(false);
+        when(messageRepository.existsConversation(1L, 2L)).thenReturn(true);
+
+        // Act
+        messageService.sendMessage(candidate, 2L, "Thanks for reaching out");
+        messageService.sendMessage(candidate, 2L, "When can we talk?");
+
+        // Assert
+        verify(connectionService, times(1)).areConnected(1L, 2L);
+        verify(messageRepository, times(1)).existsConversation(1L, 2L);
+        verify(messageRepository, times(2)).save(any(Message.class));
+    }
+
+    @Test
+    void testSendMessage_EmployerMessageOpensConversationForCandidate() {
+        // Arrange: the candidate is refused first, which caches NONE for the pair
+        when(userRepo.findById(2L)).thenReturn(Optional.of(employer));
+        when(userRepo.findById(1L)).thenReturn(Optional.of(candidate));
+        when(connectionService.areConnected(1L, 2L)).thenReturn(false);
+        when(messageRepository.existsConversation(1L, 2L)).thenReturn(false);
+        assertThrows(RuntimeException.class, () -> messageService.sendMessage(candidate, 2L, "Hello?"));
+
+        // Act
+        messageService.sendMessage(employer, 1L, "We'd like to interview you");
+        messageService.sendMessage(candidate, 2L, "Happy to!");
+
+        // Assert
+        verify(messageRepository, times(1)).existsConversation(1L, 2L);
+        verify(messageRepository, times(2)).save(any(Message.class));
+    }
+
+    @Test
+    void testGetConversation_ReturnsNewestPageChronologicallyWithOlderCursor() {
+        // Arrange: repository returns newest first, one row beyond the page size
+        when(userRepo.existsById(2L)).thenReturn(true);
+        when(messageRepository.findConversationLatest(1L, 2L, 3))
+                .thenReturn(List.of(message(30L), message(20L), message(10L)));
+
+        // Act
+        CursorPageDTO<Message> page = messageService.getConversation(candidate, 2L, null, null, 2);
+
+        // Assert
+        assertEquals(List.of(20L, 30L), page.getItems().stream().map(Message::getId).toList());
+        assertTrue(page.isHasMore());
+        assertEquals("20", page.getNextCursor());
+    }
+
+    @Test
+    void testGetConversation_AfterCursorReturnsNewerMessagesInOrder() {
+        // Arrange
+        when(userRepo.existsById(2L)).thenReturn(true);
+        when(messageRepository.findConversationAfter(1L, 2L, 30L, 51))
+                .thenReturn(List.of(message(40L), message(50L)));
+
+        // Act
+        CursorPageDTO<Message> page = messageService.getConversation(candidate, 2L, null, 30L, 50);
+
+        // Assert
+        assertEquals(List.of(40L, 50L), page.getItems().stream().map(Message::getId).toList());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        assertThrows(ValidationException.class, () -> messageService.getConversation(candidate, 2L, 10L, 30L, 50));
+    }
+
+    @Test
+    void testSendMessage_RecordsMessageInSummaryWithRecipientUnread() {
+        // Arrange
+        when(userRepo.findById(1L)).thenReturn(Optional.of(candidate));
+
+        // Act
+        messageService.sendMessage(employer, 1L, "x".repeat(500));
+
+        // Assert: candidate (id 1) is the low side of the pair and gets the unread increment
+        verify(conversationSummaryRepository).recordMessage(eq(1L), eq(2L), any(), eq(2L),
+                eq("x".repeat(ConversationSummary.SNIPPET_LENGTH)), eq(1), eq(0), any());
+        verify(unreadCounterService).messagesReceived(1L, 1);
+    }
+
+    @Test
+    void testSendMessage_PushesToRecipientOnlyAfterCommit() {
+        // Arrange
+        when(userRepo.findById(1L)).thenReturn(Optional.of(candidate));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            Message sent = messageService.sendMessage(employer, 1L, "We'd like to interview you");
+
+            // Assert: nothing is pushed until the transaction commits
+            verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(messagingTemplate).convertAndSendToUser("candidate@test.com", "/queue/messages", sent);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetRecentConversations_KeepsSummaryOrder() {
+        // Arrange
+        when(conversationSummaryRepository.findInboxMessageIds(1L)).thenReturn(List.of(30L, 10L, 20L));
+        when(messageRepository.findAllById(List.of(30L, 10L, 20L)))
+                .thenReturn(List.of(message(10L), message(20L), message(30L)));
+
+        // Act
+        List<Message> inbox = messageService.getRecentConversations(candidate);
+
+        // Assert
+        assertEquals(List.of(30L, 10L, 20L), inbox.stream().map(Message::getId).toList());
+    }
+
+    @Test
+    void testMarkConversationRead_DecrementsCounterByRowsFlipped() {
+        // Arrange
+        when(messageRepository.markReadFromSender(2L, 1L)).thenReturn(3);
+
+        // Act
+        int updated = messageService.markConversationRead(candidate, 2L);
+
+        // Assert
+        assertEquals(3, updated);
+        verify(conversationSummaryRepository).clearUnread(1L, 2L, 1L);
+        verify(unreadCounterService).messagesRead(1L, 3);
+    }
+
+    private Message message(long id) {
+        return Message.builder().id(id).sender(candidate).recipient(employer).content("m" + id).build();
+    }
+}
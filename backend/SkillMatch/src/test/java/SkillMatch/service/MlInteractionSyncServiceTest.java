@@ -0,0 +1,171 @@
+package SkillMatch.service;
+
+import SkillMatch.model.InteractionOutbox;
+import SkillMatch.model.JobPost;
+import SkillMatch.model.User;
+import SkillMatch.repository.InteractionOutboxRepository;
+import SkillMatch.repository.JobPostRepo;
+import SkillMatch.repository.UserRepo;
+import SkillMatch.support.StubMlEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MlInteractionSyncServiceTest {
+
+    @Mock
+    private InteractionOutboxRepository outboxRepository;
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private JobPostRepo jobPostRepo;
+
+    private StubMlEngine engine;
+    private MlInteractionSyncService syncService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = StubMlEngine.start();
+        syncService = new MlInteractionSyncService(outboxRepository, userRepo, jobPostRepo, new RestTemplateBuilder(), 10);
+        ReflectionTestUtils.setField(syncService, "mlEngineUrl", engine.baseUrl());
+        ReflectionTestUtils.setField(syncService, "batchPath", "/track/interactions/batch");
+        ReflectionTestUtils.setField(syncService, "eventPath", "/track/interaction");
+        ReflectionTestUtils.setField(syncService, "batchSize", 50);
+        ReflectionTestUtils.setField(syncService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(syncService, "baseBackoffMs", 1000L);
+        ReflectionTestUtils.setField(syncService, "maxBackoffMs", 5000L);
+        ReflectionTestUtils.setField(syncService, "claimGraceMs", 60000L);
+
+        AtomicLong ids = new AtomicLong();
+        lenient().when(outboxRepository.save(any(InteractionOutbox.class))).thenAnswer(inv -> {
+            InteractionOutbox entry = inv.getArgument(0);
+            entry.setId(ids.incrementAndGet());
+            return entry;
+        });
+        lenient().when(outboxRepository.findReady(any(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void testDispatch_CoalescesEventsIntoOneBatch() {
+        // Arrange
+        when(userRepo.findAllById(any())).thenReturn(List.of(user(1L)));
+        when(jobPostRepo.findAllById(any())).thenReturn(List.of(job(10L)));
+        syncService.enqueue(1L, 10L, "CLICK");
+        syncService.enqueue(1L, 10L, "CLICK");
+        syncService.enqueue(1L, 10L, "SAVE");
+
+        // Act
+        syncService.dispatch();
+
+        // Assert
+        assertEquals(List.of("/track/interactions/batch"), engine.paths());
+        String body = engine.bodies().get(0);
+        assertTrue(body.contains("\"count\":2"));
+        assertTrue(body.contains("\"type\":\"SAVE\""));
+        assertTrue(body.contains("\"users\":{\"1\":"));
+        verify(outboxRepository).deleteByIdIn(argThat(ids -> ids.containsAll(List.of(1L, 2L, 3L))));
+        verify(outboxRepository, never()).markFailed(any(), any());
+        assertEquals(0, syncService.bufferedCount());
+    }
+
+    @Test
+    void testDispatch_EngineDownKeepsEventsForRetry() {
+        // Arrange
+        engine.respondWith(503);
+        syncService.enqueue(1L, 10L, "CLICK");
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        syncService.dispatch();
+
+        // Assert
+        verify(outboxRepository, never()).deleteByIdIn(any());
+        verify(outboxRepository).markFailed(argThat((Collection<Long> ids) -> ids.contains(1L)),
+                argThat(retryAt -> !retryAt.isBefore(before.plusSeconds(1))));
+        verify(outboxRepository).deleteExhausted(3);
+    }
+
+    @Test
+    void testDispatch_PicksUpOverflowFromOutbox() {
+        // Arrange
+        List<InteractionOutbox> stored = new ArrayList<>();
+        for (long id = 100; id < 103; id++) {
+            stored.add(InteractionOutbox.builder().id(id).userId(2L).jobId(20L).interactionType("APPLY").attempts(1).build());
+        }
+        when(outboxRepository.findReady(any(), any())).thenReturn(stored, List.of());
+
+        // Act
+        syncService.dispatch();
+
+        // Assert
+        assertEquals(1, engine.bodies().size());
+        verify(outboxRepository).deleteByIdIn(argThat(ids -> ids.size() == 3));
+    }
+
+    @Test
+    void testDispatch_FallsBackToPerEventEndpointWhenBatchEndpointIsMissing() {
+        // Arrange
+        engine.respondWith("/track/interactions/batch", 404);
+        when(userRepo.findAllById(any())).thenReturn(List.of(user(1L)));
+        when(jobPostRepo.findAllById(any())).thenReturn(List.of(job(10L)));
+        syncService.enqueue(1L, 10L, "CLICK");
+        syncService.dispatch();
+        syncService.enqueue(1L, 10L, "SAVE");
+
+        // Act: the next batch goes straight to the per-event endpoint
+        syncService.dispatch();
+
+        // Assert
+        assertEquals(List.of("/track/interactions/batch", "/track/interaction", "/track/interaction"), engine.paths());
+        assertTrue(engine.bodies().get(1).contains("\"user_data\""));
+        verify(outboxRepository).deleteByIdIn(List.of(1L));
+        verify(outboxRepository).deleteByIdIn(List.of(2L));
+        verify(outboxRepository, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void testBackoff_GrowsExponentiallyUpToCap() {
+        assertEquals(1000L, syncService.backoffMs(1));
+        assertEquals(2000L, syncService.backoffMs(2));
+        assertEquals(4000L, syncService.backoffMs(3));
+        assertEquals(5000L, syncService.backoffMs(10));
+    }
+
+    private User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setProfession("Engineer");
+        return user;
+    }
+
+    private JobPost job(long id) {
+        JobPost job = new JobPost();
+        job.setId(id);
+        job.setTitle("Backend Developer");
+        job.setDescription("APIs");
+        return job;
+    }
+}
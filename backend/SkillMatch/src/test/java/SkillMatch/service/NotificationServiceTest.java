@@ -0,0 +1,65 @@
+package SkillMatch.service;
+
+import SkillMatch.model.Notification;
+import SkillMatch.model.User;
+import SkillMatch.repository.NotificationRepository;
+import SkillMatch.repository.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepo userRepository;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Test
+    void testMarkAllAsRead_UsesBulkUpdateAndClearsCounter() {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        notificationService.markAllAsRead(1L);
+
+        // Assert
+        verify(notificationRepository).markAllReadForUser(1L);
+        verify(notificationRepository, never()).findByUserOrderByCreatedAtDesc(any());
+        verify(notificationRepository, never()).saveAll(any());
+        verify(unreadCounterService).allNotificationsRead(1L);
+    }
+
+    @Test
+    void testMarkAsRead_DecrementsCounterOnlyWhenRowFlips() {
+        // Arrange
+        User user = User.builder().id(1L).build();
+        Notification notification = Notification.builder().id(7L).user(user).build();
+        when(notificationRepository.findById(7L)).thenReturn(Optional.of(notification));
+        when(notificationRepository.markRead(7L)).thenReturn(1).thenReturn(0);
+
+        // Act
+        notificationService.markAsRead(7L);
+        Notification result = notificationService.markAsRead(7L);
+
+        // Assert
+        assertTrue(result.isRead());
+        verify(unreadCounterService, times(1)).notificationsRead(1L, 1);
+    }
+}
@@ -0,0 +1,55 @@
+package SkillMatch.service;
+
+import SkillMatch.util.TopKSelector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelScoringEngineTest {
+
+    private ParallelScoringEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) engine.shutdown();
+    }
+
+    @Test
+    void testTopK_ParallelMatchesSequential() {
+        // Arrange
+        double[] scores = new Random(11).doubles(50_000, 0, 1000).toArray();
+        ParallelScoringEngine.ChunkScorer scorer = (from, to, top) -> {
+            for (int i = from; i < to; i++) top.offer(i, scores[i]);
+        };
+        engine = new ParallelScoringEngine(4, 1_000, 512);
+
+        // Act
+        TopKSelector parallel = engine.topK(scores.length, 25, scorer);
+        TopKSelector sequential = new TopKSelector(25);
+        scorer.score(0, scores.length, sequential);
+
+        // Assert
+        assertArrayEquals(sequential.idsDescending(), parallel.idsDescending());
+    }
+
+    @Test
+    void testTopK_SmallPoolsStayOnCallingThread() {
+        // Arrange
+        engine = new ParallelScoringEngine(4, 1_000, 64);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        // Act
+        engine.topK(999, 5, (from, to, top) -> {
+            threads.add(Thread.currentThread());
+            for (int i = from; i < to; i++) top.offer(i, i);
+        });
+
+        // Assert
+        assertEquals(Set.of(Thread.currentThread()), threads);
+    }
+}
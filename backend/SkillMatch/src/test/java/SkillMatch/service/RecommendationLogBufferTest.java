@@ -0,0 +1,64 @@
+package SkillMatch.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationLogBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecommendationLogBuffer logBuffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        logBuffer = new RecommendationLogBuffer(jdbcTemplate, meterRegistry, 8);
+        ReflectionTestUtils.setField(logBuffer, "batchSize", 5);
+        ReflectionTestUtils.setField(logBuffer, "maxDelayMs", 60_000L);
+    }
+
+    @Test
+    void testFlushIfDue_WritesOnceBatchSizeReached() {
+        // Arrange
+        for (long i = 0; i < 4; i++) logBuffer.append(1L, i, "JOB", "SHOWN");
+
+        // Act & Assert: below the size trigger and within max-delay
+        logBuffer.flushIfDue();
+        verifyNoInteractions(jdbcTemplate);
+
+        logBuffer.append(1L, 4L, "JOB", "SHOWN");
+        logBuffer.flushIfDue();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((Collection<?> rows) -> rows.size() == 5), eq(5),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(0, logBuffer.pending());
+        assertEquals(5.0, meterRegistry.counter("recommendation.log.written").count());
+    }
+
+    @Test
+    void testAppend_CountsDropsWhenFull() {
+        // Arrange & Act
+        for (long i = 0; i < 10; i++) logBuffer.append(1L, i, "CONNECTION", "SHOWN");
+
+        // Assert
+        assertEquals(8, logBuffer.pending());
+        assertEquals(2.0, meterRegistry.counter("recommendation.log.dropped").count());
+        assertEquals(8.0, meterRegistry.get("recommendation.log.pending").gauge().value());
+    }
+}
@@ -0,0 +1,78 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.RevokedTokenRepository;
+import SkillMatch.repository.SecureTokenRepository;
+import SkillMatch.repository.TokenRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenPurgeServiceTest {
+
+    @Mock
+    private TokenRepo tokenRepo;
+
+    @Mock
+    private SecureTokenRepository secureTokenRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenPurgeService purgeService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purgeService = new TokenPurgeService(tokenRepo, secureTokenRepository, revokedTokenRepository, meterRegistry);
+        ReflectionTestUtils.setField(purgeService, "batchSize", 100);
+        ReflectionTestUtils.setField(purgeService, "maxBatchesPerTick", 3);
+    }
+
+    @Test
+    void testPurge_StopsAtBatchLimitOrFirstPartialBatch() {
+        // Arrange: a large login-token backlog and a few expired codes
+        when(tokenRepo.purgeExpired(any(), eq(100))).thenReturn(100);
+        when(secureTokenRepository.purgeExpired(any(), eq(100))).thenReturn(100, 7);
+        when(revokedTokenRepository.purgeExpired(any(), eq(100))).thenReturn(0);
+
+        // Act
+        purgeService.purge();
+
+        // Assert
+        verify(tokenRepo, times(3)).purgeExpired(any(), eq(100));
+        verify(secureTokenRepository, times(2)).purgeExpired(any(), eq(100));
+        verify(revokedTokenRepository, times(1)).purgeExpired(any(), eq(100));
+        assertEquals(407.0, meterRegistry.counter("auth.tokens.purged").count());
+    }
+
+    @Test
+    void testPurge_GivesLegacyTokensTheDefaultValidityFirst() {
+        // Arrange: one full batch of tokens without expires_at, then the rest
+        when(tokenRepo.assignLegacyExpiry(any(), eq(100))).thenReturn(100, 40);
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        purgeService.purge();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        InOrder order = inOrder(tokenRepo);
+        order.verify(tokenRepo, times(2)).assignLegacyExpiry(expiresAt.capture(), eq(100));
+        order.verify(tokenRepo).purgeExpired(any(), eq(100));
+        assertFalse(expiresAt.getValue().isBefore(before.plusDays(7)));
+    }
+}
@@ -0,0 +1,90 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.RevokedTokenRepository;
+import SkillMatch.util.TokenHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry(revokedTokenRepository, 4096);
+    }
+
+    @Test
+    void testIsRevoked_MissIsAnsweredInMemoryAndHitIsConfirmed() {
+        // Arrange
+        String revokedHash = TokenHash.hex(TokenHash.sha256("revoked-jwt"));
+        when(revokedTokenRepository.currentGeneration()).thenReturn(3L);
+        when(revokedTokenRepository.findHashesSince(eq(-1L), any())).thenReturn(List.of(revokedHash));
+        when(revokedTokenRepository.existsByTokenHash(revokedHash)).thenReturn(true);
+        registry.rebuild();
+
+        // Act
+        boolean revoked = registry.isRevoked("revoked-jwt");
+        boolean live = registry.isRevoked("live-jwt");
+
+        // Assert
+        assertTrue(revoked);
+        assertFalse(live);
+        verify(revokedTokenRepository, times(1)).existsByTokenHash(anyString());
+        verify(revokedTokenRepository).backfillFromTokenTable(eq(3L), any());
+    }
+
+    @Test
+    void testRefresh_PullsRevocationsFromOtherNodesByGeneration() {
+        // Arrange
+        String otherNodeHash = TokenHash.hex(TokenHash.sha256("logged-out-elsewhere"));
+        when(revokedTokenRepository.currentGeneration()).thenReturn(1L, 1L, 2L);
+        when(revokedTokenRepository.findHashesSince(eq(-1L), any())).thenReturn(List.of());
+        when(revokedTokenRepository.findHashesSince(eq(1L), any())).thenReturn(List.of(otherNodeHash));
+        when(revokedTokenRepository.existsByTokenHash(otherNodeHash)).thenReturn(true);
+        registry.rebuild();
+
+        // Act
+        registry.refresh();
+        boolean beforeNewGeneration = registry.isRevoked("logged-out-elsewhere");
+        registry.refresh();
+        boolean afterNewGeneration = registry.isRevoked("logged-out-elsewhere");
+
+        // Assert
+        assertFalse(beforeNewGeneration);
+        assertTrue(afterNewGeneration);
+        verify(revokedTokenRepository, times(1)).findHashesSince(eq(1L), any());
+    }
+
+    @Test
+    void testRevoke_RecordsUnderNewGenerationAndRejectsLocally() {
+        // Arrange
+        when(revokedTokenRepository.currentGeneration()).thenReturn(0L, 1L);
+        when(revokedTokenRepository.findHashesSince(eq(-1L), any())).thenReturn(List.of());
+        when(revokedTokenRepository.existsByTokenHash(anyString())).thenReturn(true);
+        registry.rebuild();
+
+        // Act
+        registry.revoke("jwt", new Date(System.currentTimeMillis() + 60_000L));
+        registry.revoke("expired-jwt", new Date(System.currentTimeMillis() - 1_000L));
+
+        // Assert
+        verify(revokedTokenRepository).incrementGeneration();
+        verify(revokedTokenRepository).record(eq(TokenHash.hex(TokenHash.sha256("jwt"))), eq(1L), any());
+        assertTrue(registry.isRevoked("jwt"));
+    }
+}
@@ -0,0 +1,84 @@
+package SkillMatch.service;
+
+import SkillMatch.repository.UserInteractionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserClickProfileCacheTest {
+
+    @Mock
+    private UserInteractionRepository interactionRepo;
+
+    private UserClickProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserClickProfileCache(interactionRepo, 60_000L, 2);
+    }
+
+    @Test
+    void testGet_LoadsOnceAndServesLookupsFromMemory() {
+        // Arrange
+        when(interactionRepo.countClicksByJobForUser(1L)).thenReturn(rows(new long[]{5L, 2L}, new long[]{4L, 1L}));
+
+        // Act
+        UserClickProfileCache.ClickProfile profile = cache.get(1L);
+        cache.get(1L);
+
+        // Assert
+        assertEquals(4, profile.clicks(5L));
+        assertEquals(1, profile.clicks(2L));
+        assertEquals(0, profile.clicks(9L));
+        verify(interactionRepo, times(1)).countClicksByJobForUser(1L);
+    }
+
+    @Test
+    void testInvalidate_ForcesReload() {
+        // Arrange
+        when(interactionRepo.countClicksByJobForUser(1L))
+                .thenReturn(rows(new long[]{5L}, new long[]{1L}))
+                .thenReturn(rows(new long[]{5L}, new long[]{2L}));
+        cache.get(1L);
+
+        // Act
+        cache.invalidate(1L);
+
+        // Assert
+        assertEquals(2, cache.get(1L).clicks(5L));
+        verify(interactionRepo, times(2)).countClicksByJobForUser(1L);
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsedBeyondMaxUsers() {
+        // Arrange
+        when(interactionRepo.countClicksByJobForUser(anyLong())).thenReturn(List.of());
+
+        // Act
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        cache.get(3L);
+        cache.get(1L);
+        cache.get(2L);
+
+        // Assert: user 2 was evicted by user 3 while user 1 stayed hot
+        verify(interactionRepo, times(1)).countClicksByJobForUser(1L);
+        verify(interactionRepo, times(2)).countClicksByJobForUser(2L);
+    }
+
+    private List<Object[]> rows(long[] jobIds, long[] counts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < jobIds.length; i++) rows.add(new Object[]{jobIds[i], counts[i]});
+        return rows;
+    }
+}
@@ -26,6 +26,9 @@ class UserServiceTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private CandidateFeatureStore candidateFeatureStore;
+
     @InjectMocks
     private UserService userService;
 
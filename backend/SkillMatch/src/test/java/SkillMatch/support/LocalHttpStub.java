@@ -0,0 +1,80 @@
+package SkillMatch.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base for in-process HTTP stand-ins of external services. Listens on an ephemeral local port,
+ * records the path and body of every request, and answers with a JSON body from
+ * {@link #answer} under a configurable status code, overall or per path.
+ */
+public abstract class LocalHttpStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> paths = new CopyOnWriteArrayList<>();
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> pathStatus = new ConcurrentHashMap<>();
+    private volatile int status = 200;
+
+    protected LocalHttpStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /** Response body for a request answered with the given status. */
+    protected abstract String answer(int status, String requestBody) throws IOException;
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            paths.add(path);
+            bodies.add(body);
+        }
+        int status = pathStatus.getOrDefault(path, this.status);
+        byte[] response = answer(status, body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void respondWith(int status) {
+        this.status = status;
+    }
+
+    /** Answers requests to this path with the given status, e.g. 404 for an endpoint the service lacks. */
+    public void respondWith(String path, int status) {
+        pathStatus.put(path, status);
+    }
+
+    public List<String> paths() {
+        return paths;
+    }
+
+    public List<String> bodies() {
+        return bodies;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,56 @@
+package SkillMatch.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+
+/**
+ * Minimal in-process stand-in for the Gemini generateContent endpoint. Answers every prompt with
+ * one structured job per "### JOB n ###" section (titled "Structured n"), or with a quota error
+ * under any other status. Bind to an ephemeral port with {@link #start()}.
+ */
+public class StubGemini extends LocalHttpStub {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private volatile int maxStructured = Integer.MAX_VALUE;
+
+    private StubGemini() throws IOException {
+    }
+
+    public static StubGemini start() throws IOException {
+        return new StubGemini();
+    }
+
+    @Override
+    protected String answer(int status, String requestBody) throws IOException {
+        if (status != 200) return "{\"error\":{\"status\":\"RESOURCE_EXHAUSTED\"}}";
+        int jobs = requestBody.split("### JOB ", -1).length - 1;
+        ArrayNode structured = MAPPER.createArrayNode();
+        for (int i = 0; i < Math.min(jobs, maxStructured); i++) {
+            ObjectNode job = structured.addObject();
+            job.put("title", "Structured " + i);
+            job.put("description", "Summary " + i);
+            job.put("industry", "Technology");
+            job.put("salary", "Not Specified");
+            job.putArray("requirements").add("Degree");
+            job.putArray("skills").add("Java").add("SQL");
+        }
+        ObjectNode root = MAPPER.createObjectNode();
+        root.putArray("candidates").addObject().putObject("content").putArray("parts").addObject()
+                .put("text", MAPPER.writeValueAsString(structured));
+        root.putObject("usageMetadata").put("totalTokenCount", 100 * jobs);
+        return MAPPER.writeValueAsString(root);
+    }
+
+    public String url() {
+        return baseUrl() + "/v1beta/models/stub:generateContent";
+    }
+
+    /** Returns at most this many structured jobs per call, leaving the rest of the batch unanswered. */
+    public void structureAtMost(int maxStructured) {
+        this.maxStructured = maxStructured;
+    }
+}
@@ -0,0 +1,22 @@
+package SkillMatch.support;
+
+import java.io.IOException;
+
+/**
+ * Minimal in-process stand-in for the ML engine. Answers every request with {"status":"ok"}
+ * under the configured status code. Bind to an ephemeral port with {@link #start()}.
+ */
+public class StubMlEngine extends LocalHttpStub {
+
+    private StubMlEngine() throws IOException {
+    }
+
+    public static StubMlEngine start() throws IOException {
+        return new StubMlEngine();
+    }
+
+    @Override
+    protected String answer(int status, String requestBody) {
+        return "{\"status\":\"ok\"}";
+    }
+}
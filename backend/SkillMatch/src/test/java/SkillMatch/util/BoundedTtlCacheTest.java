@@ -0,0 +1,44 @@
+package SkillMatch.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void testGet_LoadOverlappingInvalidationIsReturnedButNotCached() {
+        // Arrange
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(60_000L, 10);
+
+        // Act: the key is invalidated while its value is being loaded
+        String loaded = cache.get("k", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        // Assert
+        assertEquals("stale", loaded);
+        assertNull(cache.getIfPresent("k"));
+        assertEquals("fresh", cache.get("k", key -> "fresh"));
+        assertEquals("fresh", cache.getIfPresent("k"));
+    }
+
+    @Test
+    void testPutIfUnchanged_EvictsEldestAndHonoursShorterTtl() throws InterruptedException {
+        // Arrange
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(60_000L, 2);
+
+        // Act
+        cache.putIfUnchanged(1, "one", cache.stamp());
+        cache.putIfUnchanged(2, "two", cache.stamp(), 20L);
+        cache.getIfPresent(1);
+        cache.putIfUnchanged(3, "three", cache.stamp());
+        Thread.sleep(40);
+
+        // Assert: 2 was least recently used, and would have expired anyway
+        assertEquals("one", cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+        assertEquals("three", cache.getIfPresent(3));
+    }
+}
@@ -0,0 +1,62 @@
+package SkillMatch.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void testOffer_RejectsWhenFullAndDrainsInOrder() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) assertTrue(buffer.offer(i));
+        assertFalse(buffer.offer(99));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertTrue(buffer.offer(4));
+        buffer.drainTo(drained, 10);
+
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testOffer_ConcurrentProducersLoseNothing() throws Exception {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1 << 16);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) buffer.offer(base + i);
+                return null;
+            });
+        }
+        start.countDown();
+
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> chunk = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            buffer.drainTo(chunk, 256);
+            seen.addAll(chunk);
+            chunk.clear();
+        }
+        pool.shutdown();
+
+        assertEquals(producers * perProducer, seen.size());
+    }
+}
@@ -0,0 +1,58 @@
+package SkillMatch.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void testTryAcquire_AllowsBurstThenRefusesUntilRefill() throws InterruptedException {
+        // Arrange
+        RateLimiter limiter = new RateLimiter(20, 3);
+        Thread.sleep(200);
+
+        // Act & Assert: three permits of burst, then empty
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // One permit refills every 50 ms
+        Thread.sleep(60);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void testAcquire_WaitsOnlyForTheRemainingInterval() throws InterruptedException {
+        // Arrange
+        RateLimiter limiter = new RateLimiter(10, 1);
+        limiter.acquire();
+
+        // Act
+        long start = System.nanoTime();
+        limiter.acquire();
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(waitedMs >= 80 && waitedMs < 1000, "waited " + waitedMs + " ms");
+    }
+
+    @Test
+    void testTryAcquireWeighted_NeedsAllPermitsAccruedAndDebtDelaysNext() throws InterruptedException {
+        // Arrange: 100 permits per second, bucket of 10
+        RateLimiter limiter = new RateLimiter(100, 10);
+        Thread.sleep(150);
+
+        // Act & Assert: a full bucket covers 10 but not 11
+        assertFalse(limiter.tryAcquire(11));
+        assertTrue(limiter.tryAcquire(10));
+        assertFalse(limiter.tryAcquire(1));
+
+        // Debt from usage above the reservation pushes the next permit out
+        Thread.sleep(60);
+        limiter.consume(10);
+        assertFalse(limiter.tryAcquire(1));
+    }
+}
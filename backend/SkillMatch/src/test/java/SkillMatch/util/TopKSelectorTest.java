@@ -0,0 +1,65 @@
+package SkillMatch.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void testOffer_KeepsBestKInDescendingOrder() {
+        TopKSelector top = new TopKSelector(3);
+        top.offer(1L, 10.0);
+        top.offer(2L, 50.0);
+        top.offer(3L, 30.0);
+        top.offer(4L, 5.0);
+        top.offer(5L, 40.0);
+
+        assertEquals(3, top.size());
+        assertArrayEquals(new long[]{2L, 5L, 3L}, top.idsDescending());
+        assertArrayEquals(new double[]{50.0, 40.0, 30.0}, top.scoresDescending());
+    }
+
+    @Test
+    void testOffer_TiesPreferLargerId() {
+        TopKSelector top = new TopKSelector(2);
+        top.offer(1L, 7.0);
+        top.offer(9L, 7.0);
+        top.offer(4L, 7.0);
+
+        assertArrayEquals(new long[]{9L, 4L}, top.idsDescending());
+    }
+
+    @Test
+    void testOffer_MatchesFullSortOnRandomInput() {
+        Random random = new Random(7);
+        double[] scores = IntStream.range(0, 10_000).mapToDouble(i -> random.nextInt(1000)).toArray();
+
+        TopKSelector top = new TopKSelector(20);
+        for (int i = 0; i < scores.length; i++) top.offer(i, scores[i]);
+
+        long[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted((a, b) -> scores[a] != scores[b] ? Double.compare(scores[b], scores[a]) : Integer.compare(b, a))
+                .limit(20)
+                .mapToLong(Integer::longValue)
+                .toArray();
+        assertArrayEquals(expected, top.idsDescending());
+    }
+
+    @Test
+    void testOfferAll_MergesSelectors() {
+        TopKSelector left = new TopKSelector(2);
+        left.offer(1L, 1.0);
+        left.offer(2L, 9.0);
+        TopKSelector right = new TopKSelector(2);
+        right.offer(3L, 5.0);
+        right.offer(4L, 8.0);
+
+        left.offerAll(right);
+
+        assertArrayEquals(new long[]{2L, 4L}, left.idsDescending());
+    }
+}
@@ -17,6 +17,8 @@ export const Conversation = () => {
     const navigate = useNavigate()
     const [recipient, setRecipient] = useState(null)
     const [chatMessages, setChatMessages] = useState([])
+    const [olderCursor, setOlderCursor] = useState(null)
+    const [loadingOlder, setLoadingOlder] = useState(false)
     const [newMessage, setNewMessage] = useState("")
     const [showEmojiPicker, setShowEmojiPicker] = useState(false)
     const messagesEndRef = useRef(null)
@@ -70,8 +72,11 @@ export const Conversation = () => {
             try {
                 const data = await apiFetch(`/api/messages/conversation/${id}`)
                 if (data.success) {
-                    setChatMessages(data.data)
-                    chatCache.set(`history_${id}`, data.data);
+                    setChatMessages(data.data.items)
+                    setOlderCursor(data.data.hasMore ? data.data.nextCursor : null)
+                    chatCache.set(`history_${id}`, data.data.items);
+                    apiFetch(`/api/messages/conversation/${id}/read`, { method: 'POST' })
+                        .catch(err => console.error("Failed to mark conversation read", err))
                 }
             } catch (err) {
                 console.error("Failed to fetch history", err)
@@ -149,6 +154,22 @@ export const Conversation = () => {
         }
     }, [id])
 
+    const loadOlderMessages = async () => {
+        if (!olderCursor || loadingOlder) return
+        setLoadingOlder(true)
+        try {
+            const data = await apiFetch(`/api/messages/conversation/${id}?before=${olderCursor}`)
+            if (data.success) {
+                setChatMessages(prev => [...data.data.items, ...prev])
+                setOlderCursor(data.data.hasMore ? data.data.nextCursor : null)
+            }
+        } catch (err) {
+            console.error("Failed to fetch older messages", err)
+        } finally {
+            setLoadingOlder(false)
+        }
+    }
+
     const handleSendMessage = async (e) => {
         e.preventDefault()
         if (!newMessage.trim()) return
@@ -287,6 +308,13 @@ export const Conversation = () => {
 
             <main className="chat-body">
                 <div className="messages-scroller">
+                    {olderCursor && (
+                        <div className="date-separator">
+                            <button type="button" className="load-older-btn" onClick={loadOlderMessages} disabled={loadingOlder}>
+                                {loadingOlder ? 'Loading...' : 'Load earlier messages'}
+                            </button>
+                        </div>
+                    )}
                     <AnimatePresence>
                         {chatMessages.map((msg, index) => {
                             const isMe = msg.sender.id.toString() === localStorage.getItem('userId');
@@ -20,6 +20,8 @@ export const Discover = () => {
   const [activeTag, setActiveTag] = useState(null)
   const [jobsList, setJobsList] = useState([])
   const [isLoading, setIsLoading] = useState(true)
+  const [moreCursor, setMoreCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
 
   useEffect(() => {
     const role = localStorage.getItem('userRole');
@@ -36,8 +38,10 @@ export const Discover = () => {
         let allJobs;
         if (role !== 'EMPLOYER') {
           // Candidates get all jobs ranked by relevance (ML score or skill match)
+          // Ranked jobs come in cursor pages; later pages are fetched on demand
           const response = await apiFetch('/api/recommendations/jobs/all');
-          allJobs = response?.data || [];
+          allJobs = response?.data?.items || [];
+          setMoreCursor(response?.data?.hasMore ? response.data.nextCursor : null);
         } else {
           // Employers get all jobs normally (often by date)
           const response = await apiFetch('/post/all');
@@ -55,6 +59,24 @@ export const Discover = () => {
     fetchJobs();
   }, []);
 
+  const loadMoreJobs = async () => {
+    if (!moreCursor || loadingMore) return
+    setLoadingMore(true)
+    try {
+      const response = await apiFetch(`/api/recommendations/jobs/all?cursor=${encodeURIComponent(moreCursor)}`)
+      const items = response?.data?.items || []
+      setJobsList(prev => {
+        const seen = new Set(prev.map(j => j.id))
+        return [...prev, ...items.filter(j => !seen.has(j.id))]
+      })
+      setMoreCursor(response?.data?.hasMore ? response.data.nextCursor : null)
+    } catch (err) {
+      console.error('Error fetching more jobs:', err)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const tags = useMemo(() => {
     const s = new Set()
     jobsList.forEach(j => {
@@ -160,6 +182,14 @@ export const Discover = () => {
           </div>
       )}
 
+      {moreCursor && (
+        <div className="load-more">
+          <button type="button" className="page-btn load-more-btn" onClick={loadMoreJobs} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load more jobs'}
+          </button>
+        </div>
+      )}
+
       <div className="pagination">
         <div className="pagination-info">
           {filtered.length === 0 ? 'No jobs' : `Showing ${(filtered.length ? (page - 1) * pageSize + 1 : 0)} - ${Math.min(page * pageSize, filtered.length)} of ${filtered.length}`}
@@ -62,10 +62,10 @@ export const Home = () => {
             })
             .catch(err => console.error(err));
 
-            apiFetch(`/api/notifications/user/${userId}`)
+            apiFetch(`/api/notifications/user/${userId}/unread-count`)
             .then(data => {
                 if (data.success) {
-                    const unread = data.data.filter(n => !n.isRead).length;
+                    const unread = data.data.notifications;
                     setNotificationCount(unread);
                     // Update cache for notifications
                     const currentCache = chatCache.get(`home_user_data_${userId}`) || {};